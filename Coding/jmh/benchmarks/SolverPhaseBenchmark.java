@@ -0,0 +1,193 @@
+package benchmarks;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SolverPhaseBenchmark {
+    /*
+     * The phases of Benchmark as JMH benchmarks, for Graph and CSRGraph on the generated instances of Benchmark
+     * (same names, same seed): loading the DIMACS file, applyReduction, applyConstructionHeuristic, and
+     * applyStochasticLocalSearchAlgorithm with the fixed iteration count of Benchmark.tabuConfig (with the
+     * clique bound off, so every invocation does the same amount of tabu iterations). Every invocation gets a
+     * fresh graph, prepared up to the phase that is measured.
+     * JMH refuses benchmarks in the default package, and a named package can't refer to the classes of the
+     * solver, which are all in the default package. So the solver is called through reflection (see Solver):
+     * everything is looked up once per trial, and a reflective call costs nanoseconds next to phases that
+     * take milliseconds.
+     *
+     * Usage: mvn -P jmh package, then java [--add-modules jdk.incubator.vector] -jar target/benchmarks.jar
+     */
+
+    @State(Scope.Benchmark)
+    public static class Instance {
+        // Benchmark.INSTANCES, annotations need the values themselves.
+        @Param({"random_500_0.1", "random_500_0.5", "random_2000_0.05", "leighton_450_5", "leighton_450_15",
+                "leighton_450_25", "queen_8_8", "queen_13_13"})
+        public String name;
+
+        @Param({"Graph", "CSRGraph"})
+        public String graphClass;
+
+        Solver solver;
+        String file;
+
+        @Setup(Level.Trial)
+        public void generate() throws Exception {
+            solver = new Solver(graphClass);
+            file = solver.writeInstance(name, Files.createTempDirectory("gcp-jmh")).toString();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Loaded {
+        Object graph;
+
+        @Setup(Level.Invocation)
+        public void load(Instance instance) throws Exception {
+            graph = instance.solver.load(instance.file);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Reduced {
+        Object graph;
+
+        @Setup(Level.Invocation)
+        public void reduce(Instance instance) throws Exception {
+            graph = instance.solver.load(instance.file);
+            instance.solver.reduce(graph);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Colored {
+        Object graph;
+
+        @Setup(Level.Invocation)
+        public void color(Instance instance) throws Exception {
+            graph = instance.solver.load(instance.file);
+            instance.solver.reduce(graph);
+            instance.solver.construct(graph);
+            instance.solver.configure(graph);
+        }
+    }
+
+    @Benchmark
+    public Object load(Instance instance) throws Exception {
+        return instance.solver.load(instance.file);
+    }
+
+    @Benchmark
+    public Object reduction(Instance instance, Loaded loaded) throws Exception {
+        instance.solver.reduce(loaded.graph);
+        return loaded.graph;
+    }
+
+    @Benchmark
+    public Object construction(Instance instance, Reduced reduced) throws Exception {
+        instance.solver.construct(reduced.graph);
+        return reduced.graph;
+    }
+
+    @Benchmark
+    public Object tabuSearch(Instance instance, Colored colored) throws Exception {
+        // The time for TABU_ITERATIONS iterations, see Benchmark.tabuConfig.
+        instance.solver.search(colored.graph);
+        return colored.graph;
+    }
+
+    static class Solver {
+        // The reflective calls into the default package.
+        private final Class<?> graphClass;
+        private final Constructor<?> constructor;
+        private final Method writeInstance;
+        private final Method tabuConfig;
+        private final Method setSolverConfig;
+        private final Method applyReduction;
+        private final Method applyConstructionHeuristic;
+        private final Method applyStochasticLocalSearchAlgorithm;
+
+        Solver(String graphClassName) throws ReflectiveOperationException {
+            ClassLoader loader = SolverPhaseBenchmark.class.getClassLoader();
+            graphClass = Class.forName(graphClassName, true, loader);
+            constructor = graphClass.getConstructor(String.class);
+            Class<?> benchmark = Class.forName("Benchmark", true, loader);
+            writeInstance = benchmark.getMethod("writeInstance", String.class, Path.class);
+            tabuConfig = benchmark.getMethod("tabuConfig");
+            setSolverConfig = graphClass.getMethod("setSolverConfig", Class.forName("SolverConfig", true, loader));
+            applyReduction = graphClass.getMethod("applyReduction");
+            applyConstructionHeuristic = graphClass.getMethod("applyConstructionHeuristic");
+            applyStochasticLocalSearchAlgorithm = graphClass.getMethod("applyStochasticLocalSearchAlgorithm");
+            // Every load parses the DIMACS file, like in Benchmark.
+            Class.forName("BinaryGraphFormat", true, loader).getMethod("setCacheEnabled", boolean.class)
+                    .invoke(null, false);
+        }
+
+        Path writeInstance(String name, Path directory) throws Exception {
+            return (Path) invoke(writeInstance, null, name, directory);
+        }
+
+        Object load(String file) throws Exception {
+            try {
+                return constructor.newInstance(file);
+            } catch (InvocationTargetException e) {
+                throw unwrap(e);
+            }
+        }
+
+        void configure(Object graph) throws Exception {
+            invoke(setSolverConfig, graph, invoke(tabuConfig, null));
+        }
+
+        void reduce(Object graph) throws Exception {
+            invoke(applyReduction, graph);
+        }
+
+        void construct(Object graph) throws Exception {
+            invoke(applyConstructionHeuristic, graph);
+        }
+
+        void search(Object graph) throws Exception {
+            invoke(applyStochasticLocalSearchAlgorithm, graph);
+        }
+
+        private static Object invoke(Method method, Object target, Object... arguments) throws Exception {
+            try {
+                return method.invoke(target, arguments);
+            } catch (InvocationTargetException e) {
+                throw unwrap(e);
+            }
+        }
+
+        private static Exception unwrap(InvocationTargetException e){
+            // The exception of the solver itself, not the reflection wrapper around it.
+            Throwable cause = e.getCause();
+            if (cause instanceof Error){
+                throw (Error) cause;
+            }
+            return cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+public class AllocationCheck {
+    /*
+     * Checks that the tabu search doesn't allocate anything per move, by reading the amount of bytes allocated
+     * by the current thread (HotSpot's com.sun.management.ThreadMXBean) around the search.
+     * The search is run with N and with 2N iterations from the same coloring with the same seed, both after a
+     * warm-up run, so the setup work (conflict tables, saving the coloring) is the same in both runs and the
+     * difference divided by the difference in iterations is what a single iteration allocates. It should
+     * print 0. The clique bound is off, so the search can't stop early and really does N and 2N iterations.
+     *
+     * Usage: java AllocationCheck <file.col> [iterations]
+     * For a full profile, run any solver with -XX:StartFlightRecording=settings=profile,filename=sls.jfr
+     * and look at the jdk.ObjectAllocationSample events, e.g. with jfr print --events ObjectAllocationSample.
+     */
+    public static void main(String[] args) throws IOException {
+        String fileLocation = args[0];
+        long iterations = args.length > 1 ? Long.parseLong(args[1]) : 200_000;
+
+        measureGraph(fileLocation, iterations);  // warm-up, lets the JIT compile the search
+        report("Graph", measureGraph(fileLocation, iterations), measureGraph(fileLocation, 2 * iterations));
+
+        measureCSRGraph(fileLocation, iterations);
+        report("CSRGraph", measureCSRGraph(fileLocation, iterations), measureCSRGraph(fileLocation, 2 * iterations));
+    }
+
+    private static void report(String graph, long[] shortRun, long[] longRun){
+        // Both are {bytes allocated, iterations done}.
+        long iterations = longRun[1] - shortRun[1];
+        if (iterations <= 0){
+            System.out.println(graph + ": the longer search did no extra iterations, nothing to compare");
+            return;
+        }
+        System.out.printf("%s: %.3f bytes allocated per tabu iteration (%d against %d iterations)%n", graph,
+                (longRun[0] - shortRun[0]) / (double) iterations, longRun[1], shortRun[1]);
+    }
+
+    private static SolverConfig config(long iterations){
+        SolverConfig solverConfig = new SolverConfig();
+        solverConfig.setColorTimeLimit(0);
+        solverConfig.setMaxIterations(iterations);
+        solverConfig.setCheckInterval(1);
+        solverConfig.setSeed(42);
+        solverConfig.setCliqueBoundEnabled(false);
+        return solverConfig;
+    }
+
+    private static long[] measureGraph(String fileLocation, long iterations){
+        Graph graph = new Graph(fileLocation);
+        graph.applyReduction();
+        graph.applyConstructionHeuristic();
+        graph.setSolverConfig(config(iterations));
+        long before = allocatedBytes();
+        graph.applyStochasticLocalSearchAlgorithm();
+        return new long[]{allocatedBytes() - before, graph.getIterationCount()};
+    }
+
+    private static long[] measureCSRGraph(String fileLocation, long iterations) throws IOException {
+        CSRGraph graph = new CSRGraph(fileLocation);
+        graph.applyReduction();
+        graph.applyConstructionHeuristic();
+        graph.setSolverConfig(config(iterations));
+        long before = allocatedBytes();
+        graph.applyStochasticLocalSearchAlgorithm();
+        return new long[]{allocatedBytes() - before, graph.getIterationCount()};
+    }
+
+    private static long allocatedBytes(){
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
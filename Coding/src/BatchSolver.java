@@ -0,0 +1,157 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class BatchSolver {
+    /*
+     * Solves a whole directory of .col files, or every file listed in a manifest (one path per line, relative
+     * paths are relative to the manifest, lines starting with # are skipped), on a fixed amount of threads.
+     * Every instance goes through the SolverPipeline (reduction, DSatur, tabu search) with its own time limit.
+     * A result line is written to the results file as soon as an instance is done, in the order they finish.
+     * Every graph only lives inside the task solving it, so at most threadCount graphs are in memory at once,
+     * however many instances there are.
+     *
+     * Usage: java BatchSolver <directory or manifest> <results.csv> [threads] [time limit per instance in ms, 0 for none]
+     */
+    private final int threadCount;
+    private final long timeLimit;  // in milliseconds, per instance
+    private long seed = SolverConfig.DEFAULT_SEED;
+
+    private static class Result {
+        String instance;
+        int vertexCount;
+        int edgeCount;
+        int reducedVertexCount;
+        int initialColorCount;
+        int finalColorCount;
+        int lowerBound;
+        long elapsedTime;  // in nanoseconds
+        String error = "";
+    }
+
+    public BatchSolver(int threadCount, long timeLimit){
+        this.threadCount = threadCount;
+        this.timeLimit = timeLimit;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2){
+            System.out.println("Usage: java BatchSolver <directory or manifest> <results.csv> [threads] [time limit ms]");
+            return;
+        }
+        int threadCount = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long timeLimit = args.length > 3 ? Long.parseLong(args[3]) : 60000;
+        new BatchSolver(threadCount, timeLimit).solve(instances(Paths.get(args[0])), Paths.get(args[1]));
+    }
+
+    public static List<Path> instances(Path source) throws IOException {
+        // Every .col file of a directory, or every file listed in a manifest.
+        List<Path> instances = new ArrayList<>();
+        if (Files.isDirectory(source)){
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(source, "*.col")) {
+                for (Path file : files){
+                    instances.add(file);
+                }
+            }
+        } else {
+            Path directory = source.toAbsolutePath().getParent();
+            for (String line : Files.readAllLines(source)){
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")){
+                    instances.add(directory.resolve(line));
+                }
+            }
+        }
+        return instances;
+    }
+
+    public void solve(List<Path> instances, Path resultFile) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CompletionService<Result> results = new ExecutorCompletionService<>(executor);
+        for (Path instance : instances){
+            results.submit(() -> solve(instance));
+        }
+
+        try (BufferedWriter writer = Files.newBufferedWriter(resultFile)) {
+            writer.write("instance,vertices,edges,reduced_vertices,initial_colors,final_colors,lower_bound,elapsed_ms,error");
+            writer.newLine();
+            for (int i = 0; i < instances.size(); i++){
+                Result result = results.take().get();
+                writer.write(String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%d,%d,%.3f,%s", csvField(result.instance),
+                        result.vertexCount, result.edgeCount, result.reducedVertexCount, result.initialColorCount,
+                        result.finalColorCount, result.lowerBound, result.elapsedTime / 1e6, csvField(result.error)));
+                writer.newLine();
+                writer.flush();  // so the results can be followed while the batch runs
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException("A batch task failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    static String csvField(String value){
+        // A text field of a CSV line (RFC 4180): always between quotes, quotes inside are doubled. File names and
+        // error messages may contain commas, quotes or even line breaks.
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private Result solve(Path instance){
+        // Never throws: a file that can't be read gives a result with the error filled in.
+        Result result = new Result();
+        result.instance = instance.getFileName().toString();
+        long startTime = System.nanoTime();
+        try {
+            // Parsed straight from the .col file, not through BinaryGraphFormat.loadCached: a batch run never
+            // writes cache files into the directory of its input.
+            CSRGraph graph = new CSRGraph(instance.toString());
+            result.vertexCount = graph.getNumberOfNodes();
+            result.edgeCount = graph.getNumberOfEdges();
+
+            SolverConfig solverConfig = new SolverConfig();
+            solverConfig.setTotalTimeLimit(timeLimit);
+            solverConfig.setSeed(seed);
+            graph.setSolverConfig(solverConfig);
+
+            SolverPipeline pipeline = new SolverPipeline();
+            pipeline.setLocalSearch(SolverPipeline.NONE);
+            pipeline.run(graph);
+            result.reducedVertexCount = graph.getNumberOfNodes();
+            result.initialColorCount = graph.getColorCount();
+            result.lowerBound = graph.applyLowerBound();
+            // Whatever the reduction and DSatur took is taken off the time limit of the search. A time limit of 0
+            // means no limit (see SolverConfig), and stays 0.
+            if (timeLimit > 0){
+                long remainingTime = timeLimit - (System.nanoTime() - startTime) / 1_000_000;
+                solverConfig.setTotalTimeLimit(Math.max(1, remainingTime));
+            }
+            SolverPipeline.TABUCOL.apply(graph);
+            result.finalColorCount = graph.getColorCount();
+        } catch (IOException | RuntimeException e) {
+            result.error = e.getClass().getSimpleName() + ": " + String.valueOf(e.getMessage());
+        }
+        result.elapsedTime = System.nanoTime() - startTime;
+        return result;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+}
@@ -0,0 +1,307 @@
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class Benchmark {
+    /*
+     * Benchmarks every phase of Graph and CSRGraph on a fixed set of instances: loading the DIMACS file,
+     * applyReduction, applyConstructionHeuristic, and the tabu iterations per second of
+     * applyStochasticLocalSearchAlgorithm. Every measurement is run a few times to warm up the JIT first,
+     * and then measured several times; the mean and standard deviation are printed.
+     * The generated instances and the tabu search use fixed seeds, so runs can be compared with each other to
+     * find performance regressions.
+     * Finally the local search engines of SolverPipeline are compared: the color count each one reaches from
+     * the DSatur coloring within ENGINE_TIME_LIMIT.
+     * The neighbour color scan (see NeighborColorScanner) is measured in nanoseconds per edge, scalar and, when
+     * the Vector API is available, vectorized; the dense instances show the gain on high-degree vertices.
+     * The dynamic updates of Graph are measured on a colored instance: a stream of UPDATE_COUNT random edge
+     * insertions and deletions, each one repaired right away, with the percentiles of getUpdateTime in
+     * microseconds.
+     *
+     * Usage: java [--add-modules jdk.incubator.vector] Benchmark [directory with more .col files, e.g. the DIMACS instances]
+     */
+    private static final long SEED = 42;
+    // The generated instances, see writeInstance. The JMH benchmarks (jmh/benchmarks) use the same names.
+    public static final String[] INSTANCES = {"random_500_0.1", "random_500_0.5", "random_2000_0.05",
+            "leighton_450_5", "leighton_450_15", "leighton_450_25", "queen_8_8", "queen_13_13"};
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASUREMENT_ROUNDS = 5;
+    private static final long TABU_ITERATIONS = 200_000;
+    private static final long ENGINE_TIME_LIMIT = 500;  // in milliseconds, per run of a local search engine
+    private static final int SCAN_ROUNDS = 20;  // scans of the whole graph per measurement of a NeighborColorScanner
+    private static long scanSink = 0;  // keeps the JIT from dropping the scans
+    private static final int UPDATE_COUNT = 2000;  // edge insertions and deletions per update stream
+    private static final double[] PERCENTILES = {50, 90, 99, 100};
+
+    private interface Setup<T> {
+        T create() throws IOException;
+    }
+
+    private interface Measurement<T> {
+        double run(T graph) throws IOException;
+    }
+
+    public static void main(String[] args) throws IOException {
+        // Every load parses the DIMACS file, the binary cache is measured separately.
+        BinaryGraphFormat.setCacheEnabled(false);
+        List<Path> instances = generateInstances(Files.createTempDirectory("gcp-benchmark"));
+        if (args.length > 0){
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(args[0]), "*.col")) {
+                for (Path file : files){
+                    instances.add(file);
+                }
+            }
+        }
+
+        System.out.printf("%-22s %-9s %-15s %16s %12s%n", "instance", "graph", "phase", "mean", "stddev");
+        for (Path instance : instances){
+            String file = instance.toString();
+            String name = instance.getFileName().toString();
+
+            report(name, "Graph", "load ms", measure(() -> null, graph -> timed(() -> new Graph(file))));
+            report(name, "Graph", "reduction ms", measure(() -> new Graph(file),
+                    graph -> timed(graph::applyReduction)));
+            report(name, "Graph", "dsatur ms", measure(() -> reducedGraph(file),
+                    graph -> timed(graph::applyConstructionHeuristic)));
+            report(name, "Graph", "tabu it/s", measure(() -> coloredGraph(file), graph -> {
+                graph.applyStochasticLocalSearchAlgorithm();
+                return graph.getIterationsPerSecond();
+            }));
+
+            report(name, "CSRGraph", "load ms", measure(() -> null, graph -> timed(() -> new CSRGraph(file))));
+            Path binaryFile = Paths.get(file + ".bench.bin");
+            BinaryGraphFormat.write(new CSRGraph(file), binaryFile, 0);
+            binaryFile.toFile().deleteOnExit();
+            report(name, "CSRGraph", "binary load ms", measure(() -> null,
+                    graph -> timed(() -> BinaryGraphFormat.read(binaryFile))));
+            report(name, "CSRGraph", "reduction ms", measure(() -> new CSRGraph(file),
+                    graph -> timed(graph::applyReduction)));
+            report(name, "CSRGraph", "dsatur ms", measure(() -> reducedCSRGraph(file),
+                    graph -> timed(graph::applyConstructionHeuristic)));
+            report(name, "CSRGraph", "tabu it/s", measure(() -> coloredCSRGraph(file), graph -> {
+                graph.applyStochasticLocalSearchAlgorithm();
+                return graph.getIterationsPerSecond();
+            }));
+
+            // Counting the neighbours with the same color, for every vertex: scalar against the Vector API.
+            reportScan(name, file, NeighborColorScanner.SCALAR);
+            if (NeighborColorScanner.DEFAULT != NeighborColorScanner.SCALAR){
+                reportScan(name, file, NeighborColorScanner.DEFAULT);
+            }
+
+            // Edge insertions and deletions on a colored graph, one at a time, like a dynamic instance.
+            reportUpdates(name, file);
+
+            // The local search engines side by side: the color count each one reaches within the same time.
+            reportEngine(name, "tabucol", file, SolverPipeline.TABUCOL);
+            reportEngine(name, "partialcol", file, SolverPipeline.PARTIALCOL);
+            reportEngine(name, "kempe", file, SolverPipeline.KEMPE_CHAIN);
+        }
+    }
+
+    private static void reportEngine(String instance, String engine, String file, SolverPhase localSearch) throws IOException {
+        SolverPipeline pipeline = new SolverPipeline();
+        pipeline.setLocalSearch(localSearch);
+        report(instance, "CSRGraph", engine + " k", measure(() -> {
+            CSRGraph graph = new CSRGraph(file);
+            graph.setSolverConfig(engineConfig());
+            return graph;
+        }, graph -> {
+            pipeline.run(graph);
+            return graph.getColorCount();
+        }));
+    }
+
+    private static void reportScan(String instance, String file, NeighborColorScanner scanner) throws IOException {
+        report(instance, "CSRGraph", scanner.getName() + " ns/edge", measure(() -> coloredCSRGraph(file), graph -> {
+            int[] colors = graph.getColoring();
+            int[] targets = graph.getTargets();
+            int[] validIds = graph.getValidVertexIds();
+            long edges = 0;
+            long startTime = System.nanoTime();
+            for (int round = 0; round < SCAN_ROUNDS; round++){
+                for (int u : validIds){
+                    int start = graph.getNeighborStart(u);
+                    int end = graph.getNeighborEnd(u);
+                    scanSink += scanner.countColor(targets, start, end, colors, colors[u]);
+                    edges += end - start;
+                }
+            }
+            return (System.nanoTime() - startTime) / (double) Math.max(1, edges);
+        }));
+    }
+
+    private static void reportUpdates(String instance, String file){
+        /*
+         * The first stream warms up the JIT and isn't reported. Both streams use the same seed, so they do the
+         * same updates. Half of the updates insert an edge between two random vertices that aren't neighbours
+         * yet (which may need a repair of the coloring), the other half delete a random edge.
+         */
+        updateStream(file);
+        long[][] times = updateStream(file);
+        reportPercentiles(instance, "insert", times[0]);
+        reportPercentiles(instance, "delete", times[1]);
+    }
+
+    private static long[][] updateStream(String file){
+        // Returns the update times in nanoseconds, {insertions, deletions}.
+        Graph graph = coloredGraph(file);
+        int vertexCount = graph.getExpandedColoring().length;
+        Random random = new Random(SEED);
+        long[] insertTimes = new long[UPDATE_COUNT];
+        long[] deleteTimes = new long[UPDATE_COUNT];
+        int insertCount = 0;
+        int deleteCount = 0;
+        for (int i = 0; i < UPDATE_COUNT; i++){
+            if (random.nextBoolean()){
+                int u = random.nextInt(vertexCount);
+                int v = random.nextInt(vertexCount);
+                if (u == v || graph.areNeighbors(u, v)){
+                    continue;
+                }
+                graph.addEdge(u, v);
+                insertTimes[insertCount++] = graph.getUpdateTime();
+            } else {
+                int u = random.nextInt(vertexCount);
+                List<Integer> neighbors = new ArrayList<>(graph.getNeighborsOf(u));
+                if (neighbors.isEmpty()){
+                    continue;
+                }
+                graph.removeEdge(u, neighbors.get(random.nextInt(neighbors.size())));
+                deleteTimes[deleteCount++] = graph.getUpdateTime();
+            }
+        }
+        if (!graph.isProperlyColored()){
+            System.out.println("The coloring is not proper after the updates: " + file);
+        }
+        return new long[][]{Arrays.copyOf(insertTimes, insertCount), Arrays.copyOf(deleteTimes, deleteCount)};
+    }
+
+    private static void reportPercentiles(String instance, String update, long[] times){
+        Arrays.sort(times);
+        for (double percentile : PERCENTILES){
+            if (times.length == 0){
+                break;
+            }
+            int index = (int) Math.ceil(percentile / 100 * times.length) - 1;
+            String phase = update + (percentile == 100 ? " max us" : " p" + (int) percentile + " us");
+            System.out.printf("%-22s %-9s %-15s %16.3f%n", instance, "Graph", phase, times[Math.max(0, index)] / 1e3);
+        }
+    }
+
+    private static List<Path> generateInstances(Path directory) throws IOException {
+        List<Path> instances = new ArrayList<>();
+        for (String name : INSTANCES){
+            instances.add(writeInstance(name, directory));
+        }
+        return instances;
+    }
+
+    public static Path writeInstance(String name, Path directory) throws IOException {
+        // Writes one of the INSTANCES as name.col in the directory, also used by the JMH benchmarks.
+        GraphGenerator graph;
+        switch (name) {
+            case "random_500_0.1": graph = GraphGenerator.randomGraph(500, 0.1, SEED); break;
+            case "random_500_0.5": graph = GraphGenerator.randomGraph(500, 0.5, SEED); break;
+            case "random_2000_0.05": graph = GraphGenerator.randomGraph(2000, 0.05, SEED); break;
+            case "leighton_450_5": graph = GraphGenerator.leightonGraph(450, 5, 5734, SEED); break;
+            case "leighton_450_15": graph = GraphGenerator.leightonGraph(450, 15, 8168, SEED); break;
+            case "leighton_450_25": graph = GraphGenerator.leightonGraph(450, 25, 8260, SEED); break;
+            case "queen_8_8": graph = GraphGenerator.queenGraph(8); break;
+            case "queen_13_13": graph = GraphGenerator.queenGraph(13); break;
+            default: throw new IllegalArgumentException("Unknown instance: " + name);
+        }
+        Path file = directory.resolve(name + ".col");
+        graph.writeDimacs(file);
+        file.toFile().deleteOnExit();
+        return file;
+    }
+
+    public static SolverConfig tabuConfig(){
+        // Fixed seed and a fixed amount of iterations, also used by the JMH benchmarks. The clique bound is off,
+        // so a search that reaches it early still does all of its iterations.
+        SolverConfig solverConfig = new SolverConfig();
+        solverConfig.setSeed(SEED);
+        solverConfig.setColorTimeLimit(0);
+        solverConfig.setMaxIterations(TABU_ITERATIONS);
+        solverConfig.setCliqueBoundEnabled(false);
+        return solverConfig;
+    }
+
+    private static SolverConfig engineConfig(){
+        SolverConfig solverConfig = new SolverConfig();
+        solverConfig.setSeed(SEED);
+        solverConfig.setColorTimeLimit(0);
+        solverConfig.setTotalTimeLimit(ENGINE_TIME_LIMIT);
+        return solverConfig;
+    }
+
+    private static Graph reducedGraph(String file){
+        Graph graph = new Graph(file);
+        graph.applyReduction();
+        return graph;
+    }
+
+    private static Graph coloredGraph(String file){
+        Graph graph = reducedGraph(file);
+        graph.applyConstructionHeuristic();
+        graph.setSolverConfig(tabuConfig());
+        return graph;
+    }
+
+    private static CSRGraph reducedCSRGraph(String file) throws IOException {
+        CSRGraph graph = new CSRGraph(file);
+        graph.applyReduction();
+        return graph;
+    }
+
+    private static CSRGraph coloredCSRGraph(String file) throws IOException {
+        CSRGraph graph = reducedCSRGraph(file);
+        graph.applyConstructionHeuristic();
+        graph.setSolverConfig(tabuConfig());
+        return graph;
+    }
+
+    private interface Action {
+        void run() throws IOException;
+    }
+
+    private static double timed(Action action) throws IOException {
+        // Runs the action, and returns how long it took in milliseconds.
+        long startTime = System.nanoTime();
+        action.run();
+        return (System.nanoTime() - startTime) / 1e6;
+    }
+
+    private static <T> double[] measure(Setup<T> setup, Measurement<T> measurement) throws IOException {
+        // Every round gets a fresh graph from setup, which isn't measured.
+        for (int i = 0; i < WARMUP_ROUNDS; i++){
+            measurement.run(setup.create());
+        }
+        double[] results = new double[MEASUREMENT_ROUNDS];
+        for (int i = 0; i < MEASUREMENT_ROUNDS; i++){
+            results[i] = measurement.run(setup.create());
+        }
+        return results;
+    }
+
+    private static void report(String instance, String graph, String phase, double[] results){
+        double mean = 0;
+        for (double result : results){
+            mean += result;
+        }
+        mean /= results.length;
+        double variance = 0;
+        for (double result : results){
+            variance += (result - mean) * (result - mean);
+        }
+        double standardDeviation = Math.sqrt(variance / Math.max(1, results.length - 1));
+        System.out.printf("%-22s %-9s %-15s %16.3f %12.3f%n", instance, graph, phase, mean, standardDeviation);
+    }
+}
@@ -0,0 +1,272 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class BinaryGraphFormat {
+    /*
+     * A compact binary file format for CSRGraph, and a cache that keeps a binary copy of every loaded .col file.
+     * All numbers are little endian ints:
+     *     magic, version, flags, vertexCount, targetCount, colorCount   the header
+     *     offsets[vertexCount + 1]                                     row u is targets[offsets[u]..offsets[u + 1]]
+     *     targets[targetCount]                                         sorted rows, every edge is in two rows
+     *     reducedTo[vertexCount]     if flags has REDUCTION            -1 valid, -2 removed, else the vertex it
+     *                                                                  was reduced to
+     *     colors[vertexCount]        if flags has COLORING             -1 for uncolored vertices
+     * Reading maps the file and copies every section straight out of the mapped IntBuffer into an int array,
+     * one bulk copy per section, without parsing anything.
+     */
+    private static final int MAGIC = 0x47435042;  // "GCPB"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 6;  // in ints
+    public static final int REDUCTION = 1;
+    public static final int COLORING = 2;
+    private static final String CACHE_EXTENSION = ".bin";
+
+    private static volatile boolean cacheEnabled = true;
+
+    public static void write(CSRGraph graph, Path file, int flags) throws IOException {
+        /*
+         * Writes the graph to the given file. flags is a combination of REDUCTION and COLORING, saying whether the
+         * reduced vertices and the coloring are saved as well. The file is written next to its final location
+         * and then moved in place, so readers never see half a file.
+         */
+        int vertexCount = graph.getVertexCount();
+        int[] graphTargets = graph.getTargets();
+        int[] offsets = new int[vertexCount + 1];
+        for (int u = 0; u < vertexCount; u++){
+            offsets[u + 1] = offsets[u] + graph.getNeighborEnd(u) - graph.getNeighborStart(u);
+        }
+        int targetCount = offsets[vertexCount];
+
+        Path temporaryFile = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                IntWriter ints = new IntWriter(channel);
+                ints.put(new int[]{MAGIC, VERSION, flags, vertexCount, targetCount, graph.getColorCount()}, 0, HEADER_SIZE);
+                ints.put(offsets, 0, offsets.length);
+                for (int u = 0; u < vertexCount; u++){
+                    ints.put(graphTargets, graph.getNeighborStart(u), offsets[u + 1] - offsets[u]);
+                }
+                if ((flags & REDUCTION) != 0){
+                    int[] reducedTo = new int[vertexCount];
+                    for (int u = 0; u < vertexCount; u++){
+                        reducedTo[u] = graph.isRemoved(u) ? -2 : graph.getReducedTo(u);
+                    }
+                    ints.put(reducedTo, 0, vertexCount);
+                }
+                if ((flags & COLORING) != 0){
+                    ints.put(graph.getColoring(), 0, vertexCount);
+                }
+                ints.flush();
+                channel.force(false);
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    private static class IntWriter {
+        // Writes ints to a channel through a fixed size buffer. (Writing through a mapping would keep the file
+        // mapped until the buffer is garbage collected, and on Windows a mapped file can't be moved.)
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        private final IntBuffer ints = buffer.asIntBuffer();
+
+        IntWriter(FileChannel channel){
+            this.channel = channel;
+        }
+
+        void put(int[] values, int offset, int length) throws IOException {
+            while (length > 0){
+                if (!ints.hasRemaining()){
+                    flush();
+                }
+                int count = Math.min(length, ints.remaining());
+                ints.put(values, offset, count);
+                offset += count;
+                length -= count;
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.position(0).limit(ints.position() * Integer.BYTES);
+            while (buffer.hasRemaining()){
+                channel.write(buffer);
+            }
+            buffer.clear();
+            ints.clear();
+        }
+    }
+
+    public static CSRGraph read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE * Integer.BYTES){
+                throw new IOException("Not a binary graph file: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            IntBuffer ints = buffer.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            if (ints.get() != MAGIC || ints.get() != VERSION){
+                throw new IOException("Not a binary graph file, or written by another version: " + file);
+            }
+            int flags = ints.get();
+            int vertexCount = ints.get();
+            int targetCount = ints.get();
+            int colorCount = ints.get();
+            long expectedInts = HEADER_SIZE + (vertexCount + 1) + (long) targetCount
+                    + ((flags & REDUCTION) != 0 ? vertexCount : 0) + ((flags & COLORING) != 0 ? vertexCount : 0);
+            if (vertexCount < 0 || targetCount < 0 || expectedInts * Integer.BYTES != size){
+                throw new IOException("Binary graph file is damaged: " + file);
+            }
+
+            int[] offsets = new int[vertexCount + 1];
+            ints.get(offsets);
+            int[] targets = new int[targetCount];
+            ints.get(targets);
+            int[] reducedTo = new int[vertexCount];
+            if ((flags & REDUCTION) != 0){
+                ints.get(reducedTo);
+            } else {
+                Arrays.fill(reducedTo, -1);
+            }
+            int[] colors = new int[vertexCount];
+            if ((flags & COLORING) != 0){
+                ints.get(colors);
+            } else {
+                Arrays.fill(colors, -1);
+                colorCount = 0;
+            }
+            validate(offsets, targets, reducedTo, colors, colorCount, file);
+            return new CSRGraph(offsets, targets, reducedTo, colors, colorCount, file);
+        }
+    }
+
+    private static void validate(int[] offsets, int[] targets, int[] reducedTo, int[] colors, int colorCount,
+                                 Path file) throws IOException {
+        /*
+         * A file of the right size can still be damaged. Everything CSRGraph indexes with is checked here, so a
+         * bad file is an IOException now instead of an ArrayIndexOutOfBoundsException somewhere later: the
+         * rows must be increasing and cover targets exactly, every row sorted without duplicates, every id a
+         * vertex, every color below colorCount, and no reducedTo chain may be a cycle. The rows of the valid
+         * vertices must also be symmetric: v in the row of u exactly when u is in the row of v (reduced
+         * vertices only keep their own row, see CSRGraph.reduceTo). O(|V| + |E|), next to the copy that is
+         * nothing.
+         */
+        int vertexCount = reducedTo.length;
+        if (offsets[0] != 0 || offsets[vertexCount] != targets.length || colorCount < 0){
+            throw new IOException("Binary graph file is damaged: " + file);
+        }
+        for (int u = 0; u < vertexCount; u++){
+            if (offsets[u + 1] < offsets[u]){
+                throw new IOException("Binary graph file is damaged: " + file);
+            }
+            int previous = -1;
+            for (int i = offsets[u]; i < offsets[u + 1]; i++){
+                int v = targets[i];
+                if (v <= previous || v >= vertexCount){  // previous >= -1, so this also catches v < 0
+                    throw new IOException("Binary graph file is damaged: " + file);
+                }
+                previous = v;
+            }
+            if (reducedTo[u] < -2 || reducedTo[u] >= vertexCount || reducedTo[u] == u
+                    || colors[u] < -1 || colors[u] >= colorCount){
+                throw new IOException("Binary graph file is damaged: " + file);
+            }
+        }
+        // Symmetry of the valid rows. The rows are sorted, so going over u in order, the rows of u's neighbours
+        // v must list u in that same order: next[v] is where the next u in the row of v has to be.
+        int[] next = Arrays.copyOf(offsets, vertexCount);
+        for (int u = 0; u < vertexCount; u++){
+            if (reducedTo[u] != -1){
+                continue;
+            }
+            for (int i = offsets[u]; i < offsets[u + 1]; i++){
+                int v = targets[i];
+                if (reducedTo[v] != -1 || next[v] == offsets[v + 1] || targets[next[v]] != u){
+                    throw new IOException("Binary graph file is damaged: " + file);
+                }
+                next[v]++;
+            }
+        }
+        for (int v = 0; v < vertexCount; v++){
+            if (reducedTo[v] == -1 && next[v] != offsets[v + 1]){
+                throw new IOException("Binary graph file is damaged: " + file);
+            }
+        }
+        // The reducedTo chains must end, or CSRGraph.getColor would follow a cycle forever.
+        byte[] state = new byte[vertexCount];  // 0 not seen yet, 1 on the chain being followed, 2 known to end
+        for (int u = 0; u < vertexCount; u++){
+            int v = u;
+            while (v >= 0 && state[v] == 0){
+                state[v] = 1;
+                v = reducedTo[v];
+            }
+            if (v >= 0 && state[v] == 1){
+                throw new IOException("Binary graph file is damaged: " + file);
+            }
+            for (v = u; v >= 0 && state[v] == 1; v = reducedTo[v]){
+                state[v] = 2;
+            }
+        }
+    }
+
+    public static Path cacheFile(String fileLocation){
+        // The binary copy of a .col file sits right next to it: le450_5b.col -> le450_5b.col.bin
+        return Paths.get(fileLocation + CACHE_EXTENSION);
+    }
+
+    public static boolean isCacheFresh(String fileLocation){
+        // Whether there is a binary copy of the file that is newer than the file itself.
+        Path cache = cacheFile(fileLocation);
+        try {
+            return cacheEnabled && Files.exists(cache)
+                    && Files.getLastModifiedTime(cache).compareTo(Files.getLastModifiedTime(Paths.get(fileLocation))) > 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public static CSRGraph loadCached(String fileLocation) throws IOException {
+        /*
+         * Loads a DIMACS .col file through the cache: if its binary copy is newer, that copy is read,
+         * otherwise the .col file is parsed and the binary copy is (re)written for next time.
+         * A cache that can't be read or written is skipped, the .col file is always the source of truth.
+         */
+        if (isCacheFresh(fileLocation)){
+            try {
+                return read(cacheFile(fileLocation));
+            } catch (IOException | RuntimeException e) {
+                // Whatever went wrong with the cache, the .col file can still be parsed.
+                System.out.println("Could not read graph cache, parsing the file instead: " + cacheFile(fileLocation));
+            }
+        }
+        CSRGraph graph = new CSRGraph(fileLocation);
+        if (cacheEnabled){
+            try {
+                write(graph, cacheFile(fileLocation), 0);
+            } catch (IOException e) {
+                System.out.println("Could not write graph cache: " + cacheFile(fileLocation));
+            }
+        }
+        return graph;
+    }
+
+    public static boolean isCacheEnabled() {
+        return cacheEnabled;
+    }
+
+    public static void setCacheEnabled(boolean cacheEnabled) {
+        BinaryGraphFormat.cacheEnabled = cacheEnabled;
+    }
+}
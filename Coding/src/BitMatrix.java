@@ -0,0 +1,79 @@
+import java.util.Arrays;
+
+public class BitMatrix {
+    /*
+     * A square matrix of bits, used as the adjacency matrix of dense graphs: row u has bit v set if u and v are
+     * neighbours. The rows are stored one after the other in a single long[], 64 bits per long.
+     * Looking up an edge is O(1), and checking if a row is a subset of another takes |V| / 64 word operations.
+     * It costs |V|^2 / 8 bytes, where adjacency lists cost a reference per edge end: for dense graphs (see
+     * isDense) Graph keeps its edges in the matrix only, and its neighbour lists are views on the rows.
+     * CSRGraph doesn't use it: its searches, the vectorized scans and ColoringVerifier all work on the CSR rows.
+     */
+    public static final double DENSITY_THRESHOLD = 0.25;
+
+    private final int size;
+    private final int words;  // longs per row
+    private final long[] bits;
+
+    public BitMatrix(int size){
+        this.size = size;
+        this.words = (size + 63) >>> 6;
+        this.bits = new long[size * words];
+    }
+
+    public static boolean isDense(int vertexCount, long edgeCount){
+        // Whether a graph with these counts (e.g. from the p line) should get an adjacency matrix.
+        if (vertexCount < 2 || (long) vertexCount * ((vertexCount + 63) >>> 6) > Integer.MAX_VALUE - 8){
+            return false;
+        }
+        double density = 2.0 * edgeCount / ((double) vertexCount * (vertexCount - 1));
+        return density >= DENSITY_THRESHOLD;
+    }
+
+    public boolean get(int u, int v){
+        return (bits[u * words + (v >>> 6)] & (1L << v)) != 0;
+    }
+
+    public void set(int u, int v){
+        bits[u * words + (v >>> 6)] |= 1L << v;
+    }
+
+    public void clear(int u, int v){
+        bits[u * words + (v >>> 6)] &= ~(1L << v);
+    }
+
+    public int nextSetBit(int u, int from){
+        // The first v >= from with bit (u, v) set, or -1 if there is none.
+        if (from >= size){
+            return -1;
+        }
+        int start = u * words;
+        int word = from >>> 6;
+        long bitsLeft = bits[start + word] & (-1L << from);
+        while (bitsLeft == 0){
+            if (++word == words){
+                return -1;
+            }
+            bitsLeft = bits[start + word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bitsLeft);
+    }
+
+    public void clearRow(int u){
+        Arrays.fill(bits, u * words, (u + 1) * words, 0L);
+    }
+
+    public boolean isSubset(int u, int v){
+        // Whether every bit of row u is also set in row v.
+        for (int i = u * words, j = v * words, end = i + words; i < end; i++, j++){
+            if ((bits[i] & ~bits[j]) != 0){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getSize() {
+        return size;
+    }
+}
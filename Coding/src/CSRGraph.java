@@ -0,0 +1,636 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+public class CSRGraph implements GraphInterface {
+    /*
+     * A graph stored in compressed sparse row form, as an alternative to the Vertex objects used by Graph.
+     * The neighbours of vertex u are targets[offsets[u]] up to targets[offsets[u] + degrees[u] - 1], sorted
+     * increasingly. Removing an edge shrinks the row of a vertex, the space behind it stays unused.
+     * The whole graph lives in a handful of int arrays, so nothing is allocated when asking for the degree
+     * or the neighbours of a vertex, or while running the heuristics.
+     */
+    private int[] offsets;  // length vertexCount + 1
+    private int[] targets;
+    private int[] degrees;
+    private int[] colors;
+    private int[] reducedTo;  // -1 if the vertex is not reduced
+    private boolean[] removed;
+    private int validCount;
+    private int colorCount = 0;
+    private long iterationCount = 0;  // tabu iterations done by the stochastic local search
+    private long searchTime = 0;  // in nanoseconds
+    private SolverConfig solverConfig = new SolverConfig();
+    private int lowerBound = 0;  // the size of the largest clique found, 0 if it hasn't been looked for yet
+    private Path sourceFile = null;  // the file the graph was read from, a .col file or a binary one
+    private long declaredEdgeCount;  // the edge count of the p line, or of the binary header
+
+    public CSRGraph(String fileLocation) throws IOException {
+        DimacsLoader loader = new DimacsLoader(fileLocation);
+        build(loader.getVertexCount(), loader.getEdgeCount(), loader.getEdgeSources(), loader.getEdgeTargets());
+        sourceFile = Paths.get(fileLocation);
+        declaredEdgeCount = loader.getDeclaredEdgeCount();
+    }
+
+    public CSRGraph(int vertexCount, int edgeCount, int[] edgeSources, int[] edgeTargets){
+        build(vertexCount, edgeCount, edgeSources, edgeTargets);
+        declaredEdgeCount = edgeCount;
+    }
+
+    CSRGraph(int[] offsets, int[] targets, int[] reducedTo, int[] colors, int colorCount, Path sourceFile){
+        /*
+         * Takes over the given arrays, as read by BinaryGraphFormat: rows are compact (offsets[u + 1] is where the
+         * row of u ends) and sorted. In reducedTo, -1 means valid, -2 means removed.
+         */
+        int vertexCount = offsets.length - 1;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.degrees = new int[vertexCount];
+        this.reducedTo = reducedTo;
+        this.colors = colors;
+        this.colorCount = colorCount;
+        this.removed = new boolean[vertexCount];
+        this.sourceFile = sourceFile;
+        this.declaredEdgeCount = targets.length / 2;
+        for (int u = 0; u < vertexCount; u++){
+            degrees[u] = offsets[u + 1] - offsets[u];
+            if (reducedTo[u] == -2){
+                removed[u] = true;
+                reducedTo[u] = -1;
+            }
+            if (isValid(u)){
+                validCount++;
+            }
+        }
+    }
+
+    private void build(int vertexCount, int edgeCount, int[] edgeSources, int[] edgeTargets){
+        offsets = new int[vertexCount + 1];
+        degrees = new int[vertexCount];
+        for (int i = 0; i < edgeCount; i++){
+            if (edgeSources[i] != edgeTargets[i]){  // self loops can never be colored properly, skip them
+                offsets[edgeSources[i] + 1]++;
+                offsets[edgeTargets[i] + 1]++;
+            }
+        }
+        for (int u = 0; u < vertexCount; u++){
+            offsets[u + 1] += offsets[u];
+        }
+
+        targets = new int[offsets[vertexCount]];
+        for (int i = 0; i < edgeCount; i++){
+            int u = edgeSources[i];
+            int v = edgeTargets[i];
+            if (u != v){
+                targets[offsets[u] + degrees[u]++] = v;
+                targets[offsets[v] + degrees[v]++] = u;
+            }
+        }
+
+        // Sort every row, and drop edges that were listed more than once in the file.
+        for (int u = 0; u < vertexCount; u++){
+            int start = offsets[u];
+            int end = start + degrees[u];
+            Arrays.sort(targets, start, end);
+            int last = start;
+            for (int i = start + 1; i < end; i++){
+                if (targets[i] != targets[last]){
+                    targets[++last] = targets[i];
+                }
+            }
+            degrees[u] = end == start ? 0 : last - start + 1;
+        }
+
+        colors = new int[vertexCount];
+        Arrays.fill(colors, -1);
+        reducedTo = new int[vertexCount];
+        Arrays.fill(reducedTo, -1);
+        removed = new boolean[vertexCount];
+        validCount = vertexCount;
+    }
+
+    private boolean isValid(int u){
+        return !removed[u] && reducedTo[u] == -1;
+    }
+
+    @Override
+    public Collection<Integer> getNodes() {
+        /*
+         * Returns list of the valid, non-reduced nodes only.
+         */
+        Collection<Integer> vertexIds = new ArrayList<>(validCount);
+        for (int u = 0; u < degrees.length; u++){
+            if (isValid(u)){
+                vertexIds.add(u);
+            }
+        }
+        return vertexIds;
+    }
+
+    @Override
+    public int getNumberOfEdges() {
+        int edgeCount = 0;
+        for (int u = 0; u < degrees.length; u++){
+            if (isValid(u)){
+                edgeCount += degrees[u];
+            }
+        }
+        // Every edge is stored in the rows of both of its endpoints.
+        return edgeCount/2;
+    }
+
+    @Override
+    public int getNumberOfNodes() {
+        /*
+         * Returns the amount of valid, non-reduced vertices.
+         */
+        return validCount;
+    }
+
+    @Override
+    public boolean areNeighbors(int u, int v) {
+        /*
+         * Rows are sorted, so this is a binary search: O(log(degree)).
+         */
+        return Arrays.binarySearch(targets, offsets[u], offsets[u] + degrees[u], v) >= 0;
+    }
+
+    @Override
+    public int getDegree(int u) {
+        return degrees[u];
+    }
+
+    @Override
+    public void removeNode(int u) {
+        /*
+         * Removes all references to the given node from the graph.
+         * Note: this means this vertex is lost, and cannot be recovered, unlike a reduced vertex.
+         */
+        for (int i = offsets[u], end = offsets[u] + degrees[u]; i < end; i++){
+            removeFromRow(targets[i], u);
+        }
+        degrees[u] = 0;
+        if (isValid(u)){
+            validCount--;
+        }
+        removed[u] = true;
+        lowerBound = 0;  // the clique may have lost this vertex
+    }
+
+    @Override
+    public void removeEdge(int u, int v) {
+        /*
+         * Fully removes an edge from the graph.
+         */
+        removeFromRow(u, v);
+        removeFromRow(v, u);
+        lowerBound = 0;  // the clique may have lost this edge
+    }
+
+    private void removeFromRow(int u, int v){
+        int start = offsets[u];
+        int end = start + degrees[u];
+        int index = Arrays.binarySearch(targets, start, end, v);
+        if (index >= 0){
+            System.arraycopy(targets, index + 1, targets, index, end - index - 1);
+            degrees[u]--;
+        }
+    }
+
+    @Override
+    public Collection<Integer> getNeighborsOf(int u) {
+        /*
+         * Returns a read-only view on the row of u, nothing is copied.
+         * Iterating over it boxes every id, so hot loops should use getNeighborStart/getNeighborEnd/getTargets.
+         */
+        final int start = offsets[u];
+        final int size = degrees[u];
+        return new AbstractList<Integer>() {
+            @Override
+            public Integer get(int index) {
+                if (index < 0 || index >= size){
+                    throw new IndexOutOfBoundsException(index);
+                }
+                return targets[start + index];
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    public int getNeighborStart(int u){
+        return offsets[u];
+    }
+
+    public int getNeighborEnd(int u){
+        return offsets[u] + degrees[u];
+    }
+
+    public int[] getTargets(){
+        return targets;
+    }
+
+    public int getVertexCount(){
+        // Including removed and reduced vertices, ids range from 0 to getVertexCount() - 1.
+        return degrees.length;
+    }
+
+    @Override
+    public void applyReduction() {
+        /*
+         * Same reduction as in Graph: if the neighbours of vertex a are a subset of the neighbours of vertex b,
+         * a can always get the color of b. Passes are repeated until nothing more reduces.
+         */
+        while (applyReductionPass() > 0) {
+            // keep reducing
+        }
+    }
+
+    public int applyReductionPass() {
+        /*
+         * A single reduction pass, returns the amount of vertices that were reduced. Like in Graph, the candidates
+         * for a are the neighbours of its lowest degree neighbour, pruned by degree and by a 64 bit neighbourhood
+         * signature before the exact subset check, which is a merge of two sorted rows.
+         */
+        int vertexCount = degrees.length;
+        long[] signatures = new long[vertexCount];
+        for (int u = 0; u < vertexCount; u++){
+            if (isValid(u)){
+                long signature = 0;
+                for (int i = offsets[u], end = offsets[u] + degrees[u]; i < end; i++){
+                    signature |= 1L << signatureBit(targets[i]);
+                }
+                signatures[u] = signature;
+            }
+        }
+
+        // Signatures are not updated when a vertex is reduced, which can only hide subsets until the next pass.
+        int reducedCount = 0;
+        int anyValidVertex = -1;  // isolated vertices are a subset of anything
+        for (int u = 0; u < vertexCount; u++){
+            if (!isValid(u)){
+                continue;
+            }
+            if (anyValidVertex == -1){
+                anyValidVertex = u;
+            } else if (degrees[u] == 0){
+                reduceTo(u, anyValidVertex);
+                reducedCount++;
+                continue;
+            }
+            if (degrees[u] == 0){
+                continue;
+            }
+
+            int pivot = targets[offsets[u]];
+            for (int i = offsets[u] + 1, end = offsets[u] + degrees[u]; i < end; i++){
+                if (degrees[targets[i]] < degrees[pivot]){
+                    pivot = targets[i];
+                }
+            }
+            for (int i = offsets[pivot], end = offsets[pivot] + degrees[pivot]; i < end; i++){
+                int candidate = targets[i];
+                if (candidate == u || !isValid(candidate) || degrees[candidate] < degrees[u]
+                        || (signatures[u] & ~signatures[candidate]) != 0){
+                    continue;
+                }
+                if (isSubset(u, candidate)){
+                    reduceTo(u, candidate);
+                    reducedCount++;
+                    break;
+                }
+            }
+        }
+        return reducedCount;
+    }
+
+    private static int signatureBit(int id){
+        // Fibonacci hashing, spreads consecutive ids over the 64 bits.
+        return (id * 0x9E3779B1) >>> 26;
+    }
+
+    private boolean isSubset(int a, int b){
+        // Returns whether the neighbours of a are a subset of the neighbours of b.
+        if (degrees[a] > degrees[b]){
+            return false;
+        }
+        int i = offsets[a];
+        int endA = i + degrees[a];
+        int j = offsets[b];
+        int endB = j + degrees[b];
+        while (i < endA){
+            if (endA - i > endB - j){
+                return false;  // not enough neighbours of b left to match the rest
+            }
+            int target = targets[i];
+            while (j < endB && targets[j] < target){
+                j++;
+            }
+            if (j == endB || targets[j] != target){
+                return false;
+            }
+            i++;
+            j++;
+        }
+        return true;
+    }
+
+    private void reduceTo(int a, int b){
+        reducedTo[a] = b;
+        validCount--;
+        // We only remove the edges *TO* a, its own row stays intact so the original graph can be rebuilt.
+        for (int i = offsets[a], end = offsets[a] + degrees[a]; i < end; i++){
+            removeFromRow(targets[i], a);
+        }
+    }
+
+    public Path getSourceFile(){
+        // null for a graph that wasn't read from a file.
+        return sourceFile;
+    }
+
+    public long getDeclaredEdgeCount(){
+        // What the file said before duplicate edges and self loops were dropped, cheap to know right after loading.
+        return declaredEdgeCount;
+    }
+
+    public int getReducedTo(int u){
+        return reducedTo[u];
+    }
+
+    public boolean isRemoved(int u){
+        return removed[u];
+    }
+
+    @Override
+    public void applyConstructionHeuristic() {
+        /*
+         * DSatur: repeatedly color the uncolored vertex with the most differently colored neighbours
+         * (ties: highest degree) with the smallest color none of its neighbours has.
+         * The uncolored vertices sit in a SaturationQueue, and the neighbouring colors of every vertex are kept
+         * up to date, so no saturation is ever recalculated.
+         */
+        int vertexCount = degrees.length;
+        SaturationQueue queue = new SaturationQueue(vertexCount);
+        BitSet[] adjacentColors = new BitSet[vertexCount];
+        for (int u = 0; u < vertexCount; u++){
+            if (isValid(u)){
+                queue.add(u, degrees[u]);
+                adjacentColors[u] = new BitSet();
+            }
+        }
+        colorCount = 0;
+
+        while (!queue.isEmpty()){
+            int vertex = queue.poll();
+            int minimalColor = adjacentColors[vertex].nextClearBit(0);
+            if (minimalColor == colorCount){
+                colorCount++;  // A new color has been added, colorCount must increase.
+            }
+            colors[vertex] = minimalColor;
+            adjacentColors[vertex] = null;
+
+            for (int i = offsets[vertex], end = offsets[vertex] + degrees[vertex]; i < end; i++){
+                int neighbor = targets[i];
+                if (queue.contains(neighbor) && !adjacentColors[neighbor].get(minimalColor)){
+                    adjacentColors[neighbor].set(minimalColor);
+                    queue.increaseSaturation(neighbor);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void applyStochasticLocalSearchAlgorithm() {
+        /*
+         * Tabu-1-exchange, the same search as in Graph, on the flat arrays (see TabuSearch):
+         * remove the highest color, then keep moving a conflicting vertex to its best non-taboo color
+         * until no conflicts remain, and repeat. The limits come from the SolverConfig.
+         */
+        applyLocalSearch(TabuSearch::new);
+    }
+
+    public void applyLocalSearch(ColoringSearch.Factory engine){
+        /*
+         * Improves the coloring with the given search engine (TabuSearch::new, PartialColSearch::new,
+         * KempeChainSearch::new, ...): keep asking it for a coloring with one color less until it gives up,
+         * or until the target color count of the SolverConfig or the clique bound is reached.
+         */
+        if (colorCount == 0){
+            System.out.println("The graph is still uncolored, cannot improve coloring.");
+            return;
+        }
+        int bound = searchBound();  // before the timer, the search time is that of the search alone
+        long searchStartTime = System.nanoTime();
+        long totalDeadline = SolverConfig.deadline(searchStartTime, solverConfig.getTotalTimeLimit());
+        ColoringSearch search = engine.create(this, colors, colorCount, solverConfig, solverConfig.getSeed());
+        while (!solverConfig.isTargetReached(colorCount) && colorCount > bound){
+            long colorDeadline = SolverConfig.earliest(totalDeadline,
+                    SolverConfig.deadline(System.nanoTime(), solverConfig.getColorTimeLimit()));
+            if (!search.search(colorCount - 1, colorDeadline, null)){
+                break;
+            }
+            search.copyColoringTo(colors);
+            colorCount--;
+        }
+        iterationCount += search.getIterationCount();
+        searchTime += System.nanoTime() - searchStartTime;
+        if (!isProperlyColored()){
+            System.out.println("The local search ended with a coloring that is not proper.");
+        }
+    }
+
+    public void applyMultiStartLocalSearch(int threadCount, long seed){
+        /*
+         * Portfolio version of applyStochasticLocalSearchAlgorithm: threadCount independent tabu searches
+         * share the best coloring found so far (see MultiStartTabuSearch).
+         */
+        if (colorCount == 0){
+            System.out.println("The graph is still uncolored, cannot improve coloring.");
+            return;
+        }
+        int bound = searchBound();
+        long searchStartTime = System.nanoTime();
+        // The workers stop at the clique bound through the target of the SolverConfig.
+        SolverConfig searchConfig = new SolverConfig(solverConfig);
+        searchConfig.setTargetColorCount(Math.max(solverConfig.getTargetColorCount(), bound));
+        MultiStartTabuSearch search = new MultiStartTabuSearch(this, colors, colorCount, searchConfig, threadCount, seed);
+        search.run();
+        search.copyColoringTo(colors);
+        colorCount = search.getColorCount();
+        iterationCount += search.getIterationCount();
+        searchTime += System.nanoTime() - searchStartTime;
+    }
+
+    public void applyEvolutionarySearch(int parallelism){
+        /*
+         * Population based alternative to applyStochasticLocalSearchAlgorithm for hard instances: GPX crossover
+         * with the tabu search to improve the children, parallelism children at a time
+         * (see HybridEvolutionarySearch). Stops at the clique bound, like the other searches.
+         */
+        if (colorCount == 0){
+            System.out.println("The graph is still uncolored, cannot improve coloring.");
+            return;
+        }
+        int bound = searchBound();
+        SolverConfig searchConfig = new SolverConfig(solverConfig);
+        searchConfig.setTargetColorCount(Math.max(solverConfig.getTargetColorCount(), bound));
+        HybridEvolutionarySearch search = new HybridEvolutionarySearch(this, colors, colorCount, searchConfig, parallelism);
+        search.run();
+        search.copyColoringTo(colors);
+        colorCount = search.getColorCount();
+        iterationCount += search.getIterationCount();
+        searchTime += search.getElapsedTime();
+    }
+
+    public void applyComponentColoring(int threadCount){
+        /*
+         * Colors every connected component separately, on threadCount threads (see ComponentSolver).
+         * Replaces applyConstructionHeuristic and applyStochasticLocalSearchAlgorithm, for graphs that fall apart
+         * in many components.
+         */
+        long searchStartTime = System.nanoTime();
+        ComponentSolver solver = new ComponentSolver(this, threadCount);
+        solver.run();
+        searchTime += System.nanoTime() - searchStartTime;
+    }
+
+    private int searchBound(){
+        // The clique bound the searches stop at, found first if needed. 0 if the SolverConfig turns it off.
+        if (!solverConfig.isCliqueBoundEnabled()){
+            return 0;
+        }
+        if (lowerBound == 0){
+            applyLowerBound();
+        }
+        return lowerBound;
+    }
+
+    public int applyLowerBound(){
+        // The size of a large clique, a lower bound on the amount of colors (see CliqueBound).
+        lowerBound = CliqueBound.findClique(this).length;
+        return lowerBound;
+    }
+
+    public int getLowerBound(){
+        return lowerBound;
+    }
+
+    public SolverConfig getSolverConfig() {
+        return solverConfig;
+    }
+
+    public void setSolverConfig(SolverConfig solverConfig) {
+        this.solverConfig = solverConfig;
+    }
+
+    public void setColoring(int[] coloring, int colorCount){
+        // coloring is indexed by vertex id, only the colors of valid vertices are used.
+        for (int u = 0; u < colors.length; u++){
+            colors[u] = isValid(u) ? coloring[u] : -1;
+        }
+        this.colorCount = colorCount;
+    }
+
+    public int[] getColoring(){
+        // A copy of the colors of the valid vertices, indexed by vertex id. Reduced and removed vertices are -1.
+        return colors.clone();
+    }
+
+    public CSRGraph getCurrentGraph(){
+        /*
+         * A copy of the graph as it is now, for ColoringVerifier: the edges of the reduced vertices are back in
+         * (their own rows still have them), the removed vertices and edges are not. The removed vertices are
+         * removed in the copy too, so the verifier skips them.
+         */
+        int vertexCount = degrees.length;
+        int edgeCount = 0;
+        for (int u = 0; u < vertexCount; u++){
+            if (!removed[u]){
+                edgeCount += degrees[u];
+            }
+        }
+        int[] edgeSources = new int[edgeCount];
+        int[] edgeTargets = new int[edgeCount];
+        int count = 0;
+        for (int u = 0; u < vertexCount; u++){
+            if (removed[u]){
+                continue;
+            }
+            for (int i = offsets[u], end = offsets[u] + degrees[u]; i < end; i++){
+                if (!removed[targets[i]]){  // the row of a reduced vertex isn't updated when a neighbour is removed
+                    edgeSources[count] = u;
+                    edgeTargets[count++] = targets[i];
+                }
+            }
+        }
+        // Edges between two valid vertices are in both rows, the constructor drops the second copy.
+        CSRGraph graph = new CSRGraph(vertexCount, count, edgeSources, edgeTargets);
+        for (int u = 0; u < vertexCount; u++){
+            if (removed[u]){
+                graph.removeNode(u);
+            }
+        }
+        return graph;
+    }
+
+    public int[] getExpandedColoring(){
+        // The colors of all vertices, reduced ones through the vertex they were reduced to, removed ones -1.
+        // This is what ColoringVerifier checks, against the original graph or against getCurrentGraph.
+        int[] coloring = new int[colors.length];
+        for (int u = 0; u < colors.length; u++){
+            coloring[u] = removed[u] ? -1 : getColor(u);
+        }
+        return coloring;
+    }
+
+    public boolean isProperlyColored(){
+        // Every valid vertex has a color below colorCount, and no neighbour with the same color. O(|E|).
+        for (int u = 0; u < colors.length; u++){
+            if (!isValid(u)){
+                continue;
+            }
+            if (colors[u] < 0 || colors[u] >= colorCount){
+                return false;
+            }
+            if (NeighborColorScanner.DEFAULT.countColor(targets, offsets[u], offsets[u] + degrees[u], colors, colors[u]) > 0){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int[] getValidVertexIds(){
+        int[] validIds = new int[validCount];
+        for (int u = 0, index = 0; u < degrees.length; u++){
+            if (isValid(u)){
+                validIds[index++] = u;
+            }
+        }
+        return validIds;
+    }
+
+    public int getColorCount() {
+        return colorCount;
+    }
+
+    public long getIterationCount() {
+        return iterationCount;
+    }
+
+    public double getIterationsPerSecond() {
+        return searchTime == 0 ? 0 : iterationCount / (searchTime / 1e9);
+    }
+
+    @Override
+    public int getColor(int u) {
+        while (reducedTo[u] != -1){
+            u = reducedTo[u];
+        }
+        return colors[u];
+    }
+}
@@ -0,0 +1,165 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+public class Checkpoint {
+    /*
+     * The state of a running stochastic local search, so it can be continued later (see
+     * Graph.resumeStochasticLocalSearchAlgorithm). Saved as a small binary file, big endian:
+     *     magic, version, vertexCount, colorCount, tabooClock, iterationCount (long), randomState (long)
+     *     bestColoring[vertexCount]       the best proper coloring, colorCount colors, -1 for non-valid vertices
+     *     currentColoring[vertexCount]    the coloring being searched, with colorCount - 1 colors and conflicts
+     *     tabooTimer[vertexCount * colorCount]
+     * The Random of the search is a SearchRandom, only its 48-bit state is saved: no Java serialization, so
+     * reading a checkpoint never creates objects the file asks for.
+     * Files are written next to their final location and then moved in place, a crash while writing never
+     * destroys the previous checkpoint.
+     */
+    private static final int MAGIC = 0x47435043;  // "GCPC"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 5 * Integer.BYTES + 2 * Long.BYTES;  // in bytes
+
+    private final int colorCount;
+    private final int tabooClock;
+    private final long iterationCount;
+    private final long randomState;
+    private final int[] bestColoring;
+    private final int[] currentColoring;
+    private final int[] tabooTimer;
+
+    public Checkpoint(int colorCount, int tabooClock, long iterationCount, SearchRandom random, int[] bestColoring,
+                      int[] currentColoring, int[] tabooTimer){
+        // Takes over the arrays, they must not change afterwards. The state of the Random is copied right away.
+        this(colorCount, tabooClock, iterationCount, random.getState(), bestColoring, currentColoring, tabooTimer);
+    }
+
+    private Checkpoint(int colorCount, int tabooClock, long iterationCount, long randomState, int[] bestColoring,
+                       int[] currentColoring, int[] tabooTimer){
+        this.colorCount = colorCount;
+        this.tabooClock = tabooClock;
+        this.iterationCount = iterationCount;
+        this.randomState = randomState;
+        this.bestColoring = bestColoring;
+        this.currentColoring = currentColoring;
+        this.tabooTimer = tabooTimer;
+    }
+
+    public void write(Path file) throws IOException {
+        Path temporaryFile = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(bestColoring.length);
+                out.writeInt(colorCount);
+                out.writeInt(tabooClock);
+                out.writeLong(iterationCount);
+                out.writeLong(randomState);
+                for (int color : bestColoring){
+                    out.writeInt(color);
+                }
+                for (int color : currentColoring){
+                    out.writeInt(color);
+                }
+                for (int timer : tabooTimer){
+                    out.writeInt(timer);
+                }
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    public static Checkpoint read(Path file) throws IOException {
+        /*
+         * The lengths in the file are checked against its size before anything is allocated, so a damaged
+         * file is an IOException and not a NegativeArraySizeException or an OutOfMemoryError.
+         * Every array is read in one go into a byte buffer and copied out through its IntBuffer view. The file
+         * isn't mapped: the search that resumes from it may want to replace it with a new checkpoint.
+         */
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE){
+                throw new IOException("Not a checkpoint file: " + file);
+            }
+            ByteBuffer header = readFully(channel, HEADER_SIZE);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION){
+                throw new IOException("Not a checkpoint file, or written by another version: " + file);
+            }
+            int vertexCount = header.getInt();
+            int colorCount = header.getInt();
+            int tabooClock = header.getInt();
+            long iterationCount = header.getLong();
+            long randomState = header.getLong();
+            long expectedSize = HEADER_SIZE + (long) Integer.BYTES * (2L * vertexCount + (long) vertexCount * colorCount);
+            if (vertexCount < 0 || colorCount < 0 || expectedSize != size
+                    || (long) vertexCount * colorCount > Integer.MAX_VALUE / Integer.BYTES){
+                throw new IOException("Checkpoint file is damaged: " + file);
+            }
+            int[] bestColoring = readInts(channel, vertexCount);
+            int[] currentColoring = readInts(channel, vertexCount);
+            int[] tabooTimer = readInts(channel, vertexCount * colorCount);
+            return new Checkpoint(colorCount, tabooClock, iterationCount, randomState, bestColoring, currentColoring,
+                    tabooTimer);
+        }
+    }
+
+    private static int[] readInts(FileChannel channel, int count) throws IOException {
+        int[] values = new int[count];
+        readFully(channel, count * Integer.BYTES).asIntBuffer().get(values);
+        return values;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()){
+            if (channel.read(buffer) == -1){
+                throw new EOFException("The checkpoint file ends too soon");
+            }
+        }
+        return buffer.flip();
+    }
+
+    public SearchRandom getRandom() {
+        // A new Random, in the state the saved one was in.
+        SearchRandom random = new SearchRandom(0);
+        random.setState(randomState);
+        return random;
+    }
+
+    public int getVertexCount() {
+        return bestColoring.length;
+    }
+
+    public int getColorCount() {
+        return colorCount;
+    }
+
+    public int getTabooClock() {
+        return tabooClock;
+    }
+
+    public long getIterationCount() {
+        return iterationCount;
+    }
+
+    public int getBestColor(int u) {
+        return bestColoring[u];
+    }
+
+    public int getCurrentColor(int u) {
+        return currentColoring[u];
+    }
+
+    public int getTabooTimer(int u, int color) {
+        return tabooTimer[u * colorCount + color];
+    }
+}
@@ -0,0 +1,71 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class CheckpointWriter implements AutoCloseable {
+    /*
+     * Writes checkpoints on a thread of its own, so the search only pays for copying its state.
+     * If the previous checkpoint is still being written, a new one is dropped instead of queued: the next one
+     * will be more recent anyway.
+     */
+    private final Path file;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "checkpoint-writer");
+        thread.setDaemon(true);  // never keeps the program alive
+        return thread;
+    });
+    private Future<?> pending = null;
+
+    public CheckpointWriter(Path file){
+        this.file = file;
+    }
+
+    public boolean offer(Checkpoint checkpoint){
+        // Returns whether the checkpoint will be written.
+        if (pending != null && !pending.isDone()){
+            return false;
+        }
+        pending = executor.submit(() -> {
+            try {
+                checkpoint.write(file);
+            } catch (IOException e) {
+                System.out.println("Could not write checkpoint: " + file);
+                e.printStackTrace();
+            }
+        });
+        return true;
+    }
+
+    public void write(Checkpoint checkpoint){
+        // Writes the checkpoint after the one that is still pending, and waits until both are written.
+        waitForPending();
+        offer(checkpoint);
+        waitForPending();
+    }
+
+    private void waitForPending(){
+        if (pending == null){
+            return;
+        }
+        try {
+            pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.out.println("Could not write checkpoint: " + file);
+        }
+    }
+
+    @Override
+    public void close(){
+        waitForPending();
+        executor.shutdown();
+    }
+
+    public Path getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,131 @@
+import java.util.Arrays;
+
+public class CliqueBound {
+    /*
+     * A lower bound on the chromatic number: every vertex of a clique needs its own color, so a clique of size q
+     * means at least q colors. Finding the largest clique is NP-hard, this is a greedy heuristic that is fast and
+     * usually finds a clique close to the largest one on the DIMACS instances.
+     * From each of the startCount vertices with the highest degree, the clique is grown inside the neighbourhood
+     * of that vertex: the neighbourhood gets its own adjacency matrix as bitsets (long[] rows, local indices),
+     * the candidates are a bitset too, and the clique keeps taking the candidate with the most neighbours among
+     * the other candidates, after which the candidates are intersected with its row.
+     * Neighbourhoods of more than MAXIMAL_DEGREE vertices are skipped, their matrix would be too large.
+     */
+    private static final int MAXIMAL_DEGREE = 16384;
+    public static final int DEFAULT_START_COUNT = 100;
+
+    interface Adjacency {
+        int getDegree(int u);
+
+        int getNeighbor(int u, int index);
+    }
+
+    private final Adjacency adjacency;
+    private final int[] localIndex;  // the index of a vertex in the current neighbourhood, -1 if it's not in it
+
+    public CliqueBound(Adjacency adjacency, int vertexCount){
+        this.adjacency = adjacency;
+        this.localIndex = new int[vertexCount];
+        Arrays.fill(localIndex, -1);
+    }
+
+    public static int[] findClique(CSRGraph graph){
+        int[] targets = graph.getTargets();
+        CliqueBound bound = new CliqueBound(new Adjacency() {
+            @Override
+            public int getDegree(int u) {
+                return graph.getNeighborEnd(u) - graph.getNeighborStart(u);
+            }
+
+            @Override
+            public int getNeighbor(int u, int index) {
+                return targets[graph.getNeighborStart(u) + index];
+            }
+        }, graph.getVertexCount());
+        return bound.findClique(graph.getValidVertexIds(), DEFAULT_START_COUNT);
+    }
+
+    public int[] findClique(int[] vertexIds, int startCount){
+        // Returns the largest clique found, as vertex ids. vertexIds are the vertices to start from.
+        // Highest degree first: the degree is stored inverted in the high half of a long, the id in the low half,
+        // so sorting the longs sorts by degree (ties by id) without boxing.
+        long[] starts = new long[vertexIds.length];
+        for (int i = 0; i < vertexIds.length; i++){
+            starts[i] = (long) (Integer.MAX_VALUE - adjacency.getDegree(vertexIds[i])) << 32 | vertexIds[i];
+        }
+        Arrays.sort(starts);
+
+        int[] bestClique = vertexIds.length > 0 ? new int[]{vertexIds[0]} : new int[0];
+        for (int i = 0; i < Math.min(startCount, starts.length); i++){
+            int start = (int) starts[i];
+            int degree = adjacency.getDegree(start);
+            if (degree + 1 <= bestClique.length){
+                break;  // sorted by degree, no later start can do better
+            }
+            if (degree > MAXIMAL_DEGREE){
+                continue;
+            }
+            int[] clique = growClique(start, bestClique.length);
+            if (clique != null){
+                bestClique = clique;
+            }
+        }
+        return bestClique;
+    }
+
+    private int[] growClique(int start, int bestSize){
+        // The largest clique containing start that the greedy finds, or null if it isn't larger than bestSize.
+        int degree = adjacency.getDegree(start);
+        int[] neighbors = new int[degree];
+        for (int i = 0; i < degree; i++){
+            neighbors[i] = adjacency.getNeighbor(start, i);
+            localIndex[neighbors[i]] = i;
+        }
+        int words = (degree + 63) >>> 6;
+        long[][] rows = new long[degree][words];
+        for (int i = 0; i < degree; i++){
+            int u = neighbors[i];
+            for (int j = 0, uDegree = adjacency.getDegree(u); j < uDegree; j++){
+                int index = localIndex[adjacency.getNeighbor(u, j)];
+                if (index != -1){
+                    rows[i][index >>> 6] |= 1L << index;
+                }
+            }
+        }
+        for (int u : neighbors){
+            localIndex[u] = -1;
+        }
+
+        long[] candidates = new long[words];
+        for (int i = 0; i < degree; i++){
+            candidates[i >>> 6] |= 1L << i;
+        }
+        int[] clique = new int[degree + 1];
+        clique[0] = start;
+        int size = 1;
+        int candidateCount = degree;
+        while (candidateCount > 0 && size + candidateCount > bestSize){
+            int best = -1;
+            int bestCount = -1;
+            for (int w = 0; w < words; w++){
+                for (long word = candidates[w]; word != 0; word &= word - 1){
+                    int i = (w << 6) + Long.numberOfTrailingZeros(word);
+                    int count = 0;
+                    for (int x = 0; x < words; x++){
+                        count += Long.bitCount(rows[i][x] & candidates[x]);
+                    }
+                    if (count > bestCount){
+                        bestCount = count;
+                        best = i;
+                    }
+                }
+            }
+            clique[size++] = neighbors[best];
+            for (int x = 0; x < words; x++){
+                candidates[x] &= rows[best][x];
+            }
+            candidateCount = bestCount;
+        }
+        return size > bestSize ? Arrays.copyOf(clique, size) : null;
+    }
+}
@@ -0,0 +1,28 @@
+import java.util.concurrent.atomic.AtomicInteger;
+
+interface ColoringSearch {
+    /**
+     *  Tries to find a proper coloring with targetColorCount colors, starting from the current coloring.
+     *  Gives up when System.nanoTime() passes deadline, when the iteration limit of the SolverConfig is reached,
+     *  or, if sharedColorCount isn't null, as soon as another search has found a coloring with
+     *  targetColorCount colors or less. Returns whether a proper coloring was found.
+     */
+    boolean search(int targetColorCount, long deadline, AtomicInteger sharedColorCount);
+
+    /**
+     *  Copies the colors of the valid vertices of the current coloring into coloring, indexed by vertex id.
+     */
+    void copyColoringTo(int[] coloring);
+
+    /**
+     *  Returns the amount of iterations done so far.
+     */
+    long getIterationCount();
+
+    interface Factory {
+        /**
+         *  Creates a search on the graph, starting from a proper coloring with colorCount colors.
+         */
+        ColoringSearch create(CSRGraph graph, int[] coloring, int colorCount, SolverConfig solverConfig, long seed);
+    }
+}
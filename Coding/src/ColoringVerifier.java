@@ -0,0 +1,276 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+public class ColoringVerifier {
+    /*
+     * Checks a coloring against a whole graph, without reductions: the graph the way it was loaded
+     * (BinaryGraphFormat.loadCached), or, once vertices or edges were added or removed, the graph as it is now
+     * (Graph.getCurrentGraph, CSRGraph.getCurrentGraph). The coloring must give every vertex a color, reduced
+     * ones included (see Graph.getExpandedColoring and CSRGraph.getExpandedColoring). Removed vertices are
+     * skipped: they have no edges left in the current graph, and their color doesn't matter.
+     * Every edge is checked once, from the end with the smallest id. The rows are cut into chunks with about
+     * the same amount of edges (not of vertices, degrees vary a lot), and the chunks are checked in parallel.
+     * The certificate is a text file with the summary in comment lines, an "s vertexCount colorCount" line,
+     * and then the color of every vertex in order, one per line, 1-based like the .col files.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;  // so a thread that finishes early can take over some work
+
+    public static class Result {
+        private final int vertexCount;
+        private final int edgeCount;
+        private final int colorCount;  // the largest color + 1
+        private final long conflictCount;  // edges with two equal colors, or with an uncolored end
+        private final int conflictU;  // the first conflicting edge, -1 if there is none
+        private final int conflictV;
+        private final long verificationTime;  // in nanoseconds
+
+        Result(int vertexCount, int edgeCount, int colorCount, long conflictCount, int conflictU, int conflictV,
+               long verificationTime){
+            this.vertexCount = vertexCount;
+            this.edgeCount = edgeCount;
+            this.colorCount = colorCount;
+            this.conflictCount = conflictCount;
+            this.conflictU = conflictU;
+            this.conflictV = conflictV;
+            this.verificationTime = verificationTime;
+        }
+
+        public boolean isProper() {
+            return conflictCount == 0;
+        }
+
+        public int getVertexCount() {
+            return vertexCount;
+        }
+
+        public int getEdgeCount() {
+            return edgeCount;
+        }
+
+        public int getColorCount() {
+            return colorCount;
+        }
+
+        public long getConflictCount() {
+            return conflictCount;
+        }
+
+        public int getConflictU() {
+            return conflictU;
+        }
+
+        public int getConflictV() {
+            return conflictV;
+        }
+
+        public long getVerificationTime() {
+            return verificationTime;
+        }
+
+        @Override
+        public String toString() {
+            String conflicts = isProper() ? "proper" : String.format(Locale.ROOT, "NOT proper, %d conflicting edges (first: %d-%d)",
+                    conflictCount, conflictU + 1, conflictV + 1);
+            return String.format(Locale.ROOT, "%s: %d vertices, %d edges, %d colors, verified in %.3f ms", conflicts,
+                    vertexCount, edgeCount, colorCount, verificationTime / 1e6);
+        }
+    }
+
+    public static Result verify(CSRGraph graph, int[] coloring, int threadCount){
+        // coloring is indexed by vertex id. Vertices without edges may have color -1.
+        if (coloring.length != graph.getVertexCount()){
+            throw new IllegalArgumentException("The coloring has " + coloring.length + " vertices, the graph "
+                    + graph.getVertexCount() + ", was it verified against an older version of the graph?");
+        }
+        long startTime = System.nanoTime();
+        int vertexCount = graph.getVertexCount();
+        // Where the rows can be, removing edges leaves gaps at the end of the rows.
+        int targetCount = graph.getTargets().length;
+        int chunkCount = Math.max(1, Math.min(vertexCount, threadCount * CHUNKS_PER_THREAD));
+
+        // Chunk c is the rows from bounds[c] up to bounds[c + 1].
+        int[] bounds = new int[chunkCount + 1];
+        for (int c = 1; c < chunkCount; c++){
+            bounds[c] = firstRowAfter(graph, (int) ((long) targetCount * c / chunkCount), bounds[c - 1]);
+        }
+        bounds[chunkCount] = vertexCount;
+
+        boolean hasUncolored = hasUncolored(graph, coloring);
+
+        List<Callable<long[]>> tasks = new ArrayList<>(chunkCount);
+        for (int c = 0; c < chunkCount; c++){
+            int from = bounds[c];
+            int to = bounds[c + 1];
+            tasks.add(() -> verifyRows(graph, coloring, hasUncolored, from, to));
+        }
+        List<long[]> results = new ArrayList<>(chunkCount);
+        if (threadCount <= 1){
+            for (Callable<long[]> task : tasks){
+                try {
+                    results.add(task.call());
+                } catch (Exception e) {
+                    throw new RuntimeException("Verifying the coloring failed", e);
+                }
+            }
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(threadCount);
+            try {
+                for (Future<long[]> future : pool.invokeAll(tasks)){
+                    results.add(future.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Verifying the coloring was interrupted", e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Verifying the coloring failed", e.getCause());
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        // The chunks are in order, so the first conflict of the first chunk that has one is the first overall.
+        long conflictCount = 0;
+        int conflictU = -1;
+        int conflictV = -1;
+        int maxColor = -1;
+        for (long[] result : results){
+            conflictCount += result[0];
+            if (conflictU == -1 && result[0] > 0){
+                conflictU = (int) result[1];
+                conflictV = (int) result[2];
+            }
+            maxColor = Math.max(maxColor, (int) result[3]);
+        }
+        return new Result(vertexCount, graph.getNumberOfEdges(), maxColor + 1, conflictCount, conflictU, conflictV,
+                System.nanoTime() - startTime);
+    }
+
+    private static boolean hasUncolored(CSRGraph graph, int[] coloring){
+        for (int u = 0; u < coloring.length; u++){
+            if (coloring[u] < 0 && !graph.isRemoved(u)){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int firstRowAfter(CSRGraph graph, int target, int low){
+        // The first row that starts at or after the given index in the targets array, found by binary search.
+        int high = graph.getVertexCount();
+        while (low < high){
+            int middle = (low + high) >>> 1;
+            if (graph.getNeighborStart(middle) < target){
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static long[] verifyRows(CSRGraph graph, int[] coloring, boolean hasUncolored, int from, int to){
+        /*
+         * Returns {conflicting edges, first conflict u, first conflict v, largest color}.
+         * The rows are sorted, so the neighbours v > u are the end of the row, from the first one after u. They
+         * are counted with the NeighborColorScanner (vectorized if it can be), only a row that has a conflict is
+         * looked at again to find it. Uncolored neighbours are only counted if the coloring has any.
+         */
+        int[] targets = graph.getTargets();
+        NeighborColorScanner scanner = NeighborColorScanner.DEFAULT;
+        long conflictCount = 0;
+        int conflictU = -1;
+        int conflictV = -1;
+        int maxColor = -1;
+        for (int u = from; u < to; u++){
+            maxColor = Math.max(maxColor, coloring[u]);
+        }
+        for (int u = from; u < to; u++){
+            if (graph.isRemoved(u)){
+                continue;  // its row is empty, and no other row has it anymore
+            }
+            int color = coloring[u];
+            int end = graph.getNeighborEnd(u);
+            int start = Arrays.binarySearch(targets, graph.getNeighborStart(u), end, u + 1);
+            if (start < 0){
+                start = -start - 1;  // the insertion point, the first neighbour after u
+            }
+            int conflicts;
+            if (color < 0){
+                conflicts = end - start;  // every edge of an uncolored vertex is a conflict
+            } else {
+                conflicts = scanner.countColor(targets, start, end, coloring, color);
+                if (hasUncolored){
+                    conflicts += scanner.countColor(targets, start, end, coloring, -1);
+                }
+            }
+            if (conflicts > 0 && conflictCount == 0){
+                for (int i = start; i < end; i++){
+                    int v = targets[i];
+                    if (color < 0 || coloring[v] < 0 || coloring[v] == color){
+                        conflictU = u;
+                        conflictV = v;
+                        break;
+                    }
+                }
+            }
+            conflictCount += conflicts;
+        }
+        return new long[]{conflictCount, conflictU, conflictV, maxColor};
+    }
+
+    public static void writeCertificate(Path file, int[] coloring, Result result) throws IOException {
+        /*
+         * Written next to its final location and then moved in place, like the binary graph files.
+         * The colors are turned into digits by hand into one byte buffer: going through a Writer and
+         * Integer.toString costs more than the whole verification on large graphs.
+         */
+        Path temporaryFile = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temporaryFile)) {
+                String header = "c " + result + "\n"
+                        + "c line i after the s line is the color of vertex i, both 1-based, 0 for an uncolored vertex\n"
+                        + "s " + result.getVertexCount() + " " + result.getColorCount() + "\n";
+                out.write(header.getBytes(StandardCharsets.US_ASCII));
+                byte[] buffer = new byte[1 << 16];
+                int position = 0;
+                for (int color : coloring){
+                    if (position > buffer.length - 12){  // room for the digits of any int and a newline
+                        out.write(buffer, 0, position);
+                        position = 0;
+                    }
+                    position = writeNumber(buffer, position, color + 1);
+                    buffer[position++] = '\n';
+                }
+                out.write(buffer, 0, position);
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    private static int writeNumber(byte[] buffer, int position, int number){
+        // number >= 0, returns the position after its last digit.
+        int digits = 1;
+        for (int rest = number / 10; rest > 0; rest /= 10){
+            digits++;
+        }
+        for (int i = position + digits - 1; i >= position; i--){
+            buffer[i] = (byte) ('0' + number % 10);
+            number /= 10;
+        }
+        return position + digits;
+    }
+}
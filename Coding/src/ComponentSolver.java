@@ -0,0 +1,201 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ComponentSolver {
+    /*
+     * Colors every connected component of a CSRGraph on its own, in parallel, and merges the colorings.
+     * Components don't share edges, so they can all use the colors 0 .. k - 1, and the color count of the
+     * whole graph is the largest color count of a component.
+     * Every component of three or more vertices becomes a small CSRGraph of its own, which is reduced, colored
+     * with DSatur and improved with the tabu search, with a copy of the SolverConfig of the graph. A single
+     * vertex or a single edge is colored right away with the colors 0 .. size - 1, without a CSRGraph.
+     * Since only the largest color count counts, no component has to go below the color count another one
+     * already ended with: the components start in order of their DSatur color count, hardest first, and each
+     * one only searches down to the largest final color count found so far.
+     */
+    private final CSRGraph graph;
+    private final int threadCount;
+    private final int[] component;  // the component of every valid vertex, -1 for reduced and removed vertices
+    private final int componentCount;
+    private final AtomicInteger maximalColorCount = new AtomicInteger();
+
+    private static class Part {
+        int[] vertices;  // the ids in the whole graph, index = id in the part
+        CSRGraph graph;  // null for a single vertex or a single edge
+
+        int getColor(int i){
+            return graph == null ? i : graph.getColor(i);
+        }
+    }
+
+    public ComponentSolver(CSRGraph graph, int threadCount){
+        this.graph = graph;
+        this.threadCount = threadCount;
+        this.component = new int[graph.getVertexCount()];
+        this.componentCount = findComponents(graph, component);
+    }
+
+    public static int findComponents(CSRGraph graph, int[] component){
+        /*
+         * Breadth first search from every vertex that has no component yet, with an explicit queue so large
+         * components don't overflow the stack. Fills in component and returns the amount of components.
+         */
+        int[] targets = graph.getTargets();
+        Arrays.fill(component, -1);
+        int[] queue = new int[graph.getVertexCount()];
+        int componentCount = 0;
+        for (int start : graph.getValidVertexIds()){
+            if (component[start] != -1){
+                continue;
+            }
+            component[start] = componentCount;
+            queue[0] = start;
+            int size = 1;
+            for (int head = 0; head < size; head++){
+                int u = queue[head];
+                for (int i = graph.getNeighborStart(u); i < graph.getNeighborEnd(u); i++){
+                    int neighbor = targets[i];
+                    if (component[neighbor] == -1){
+                        component[neighbor] = componentCount;
+                        queue[size++] = neighbor;
+                    }
+                }
+            }
+            componentCount++;
+        }
+        return componentCount;
+    }
+
+    public void run(){
+        // Colors the graph, and stores the merged coloring in it. Blocks until every component is colored.
+        List<Part> parts = split();
+        maximalColorCount.set(0);
+        List<Part> searched = new ArrayList<>();
+        for (Part part : parts){
+            if (part.graph == null){
+                maximalColorCount.accumulateAndGet(part.vertices.length, Math::max);
+            } else {
+                searched.add(part);
+            }
+        }
+
+        // DSatur first, so the hardest components can be searched first.
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Part part : searched){
+                futures.add(executor.submit(() -> {
+                    part.graph.applyReduction();
+                    part.graph.applyConstructionHeuristic();
+                }));
+            }
+            waitFor(futures);
+            searched.sort((part1, part2) -> part2.graph.getColorCount() - part1.graph.getColorCount());
+
+            futures.clear();
+            for (Part part : searched){
+                futures.add(executor.submit(() -> search(part)));
+            }
+            waitFor(futures);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int[] coloring = new int[graph.getVertexCount()];
+        for (Part part : parts){
+            for (int i = 0; i < part.vertices.length; i++){
+                coloring[part.vertices[i]] = part.getColor(i);
+            }
+        }
+        graph.setColoring(coloring, maximalColorCount.get());
+    }
+
+    private List<Part> split(){
+        // One CSRGraph per component of three or more vertices, with the vertices numbered 0 .. size - 1 in the
+        // order of their ids.
+        int[] targets = graph.getTargets();
+        int[] sizes = new int[componentCount];
+        int[] edgeCounts = new int[componentCount];
+        for (int u : graph.getValidVertexIds()){
+            sizes[component[u]]++;
+            edgeCounts[component[u]] += graph.getNeighborEnd(u) - graph.getNeighborStart(u);
+        }
+        List<Part> parts = new ArrayList<>(componentCount);
+        int[][] sources = new int[componentCount][];
+        int[][] edgeTargets = new int[componentCount][];
+        for (int c = 0; c < componentCount; c++){
+            Part part = new Part();
+            part.vertices = new int[sizes[c]];
+            parts.add(part);
+            if (sizes[c] > 2){
+                sources[c] = new int[edgeCounts[c] / 2];  // every edge is in two rows
+                edgeTargets[c] = new int[edgeCounts[c] / 2];
+            }
+        }
+
+        int[] localId = new int[graph.getVertexCount()];
+        Arrays.fill(sizes, 0);
+        for (int u : graph.getValidVertexIds()){
+            Part part = parts.get(component[u]);
+            localId[u] = sizes[component[u]]++;
+            part.vertices[localId[u]] = u;
+        }
+        Arrays.fill(edgeCounts, 0);
+        for (int u : graph.getValidVertexIds()){
+            int c = component[u];
+            for (int i = graph.getNeighborStart(u); i < graph.getNeighborEnd(u); i++){
+                int v = targets[i];
+                if (u < v && sources[c] != null){  // every edge once, from its smaller end
+                    sources[c][edgeCounts[c]] = localId[u];
+                    edgeTargets[c][edgeCounts[c]] = localId[v];
+                    edgeCounts[c]++;
+                }
+            }
+        }
+        for (int c = 0; c < componentCount; c++){
+            Part part = parts.get(c);
+            if (sources[c] == null){
+                continue;
+            }
+            part.graph = new CSRGraph(part.vertices.length, edgeCounts[c], sources[c], edgeTargets[c]);
+            SolverConfig solverConfig = new SolverConfig(graph.getSolverConfig());
+            solverConfig.setSeed(graph.getSolverConfig().getSeed() + c);
+            part.graph.setSolverConfig(solverConfig);
+        }
+        return parts;
+    }
+
+    private void search(Part part){
+        // The tabu search only has to reach the largest color count any component has ended with so far.
+        SolverConfig solverConfig = part.graph.getSolverConfig();
+        solverConfig.setTargetColorCount(Math.max(solverConfig.getTargetColorCount(), maximalColorCount.get()));
+        part.graph.applyStochasticLocalSearchAlgorithm();
+        maximalColorCount.accumulateAndGet(part.graph.getColorCount(), Math::max);
+    }
+
+    private static void waitFor(List<Future<?>> futures){
+        try {
+            for (Future<?> future : futures){
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Coloring a component failed", e.getCause());
+        }
+    }
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    public int getColorCount() {
+        return maximalColorCount.get();
+    }
+}
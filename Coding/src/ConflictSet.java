@@ -0,0 +1,61 @@
+import java.util.Arrays;
+
+public class ConflictSet {
+    /*
+     * The set of vertices that are in conflict during the stochastic local search, so the search only has to
+     * look at those instead of at every vertex. Every vertex remembers its own index in the set, which makes
+     * add, remove and contains O(1): removing swaps the last vertex into the freed place.
+     * Vertex.changeColor keeps the set up to date through increaseConflictCount and decreaseConflictCount.
+     */
+    private Vertex[] vertices;
+    private int size = 0;
+
+    public ConflictSet(int capacity){
+        vertices = new Vertex[Math.max(1, capacity)];
+    }
+
+    public void add(Vertex vertex){
+        if (vertex.getConflictIndex() != -1){
+            return;
+        }
+        if (size == vertices.length){
+            vertices = Arrays.copyOf(vertices, size * 2);
+        }
+        vertices[size] = vertex;
+        vertex.setConflictIndex(size);
+        size++;
+    }
+
+    public void remove(Vertex vertex){
+        int index = vertex.getConflictIndex();
+        if (index == -1){
+            return;
+        }
+        size--;
+        Vertex last = vertices[size];
+        vertices[index] = last;
+        last.setConflictIndex(index);
+        vertices[size] = null;
+        vertex.setConflictIndex(-1);
+    }
+
+    public boolean contains(Vertex vertex){
+        return vertex.getConflictIndex() != -1;
+    }
+
+    public Vertex get(int index){
+        return vertices[index];
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public void clear(){
+        for (int i = 0; i < size; i++){
+            vertices[i].setConflictIndex(-1);
+            vertices[i] = null;
+        }
+        size = 0;
+    }
+}
@@ -0,0 +1,198 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class DimacsLoader {
+    /*
+     * Reads a DIMACS .col file by memory mapping it and parsing the numbers straight from the mapped bytes.
+     * No Strings (or any other objects) are created per line, the edges end up in two flat int arrays.
+     * Supported lines:
+     *     c <comment>                  ignored
+     *     p <format> <nodes> <edges>   creates the vertices, must come before the first edge
+     *     e <node1> <node2>            adds an edge, node ids start at 1 in the file, at 0 in here
+     * Blank lines, tabs, '\r' and unknown line types are skipped.
+     */
+    private static final int WINDOW_SIZE = 1 << 30;  // a single mapping can't be larger than 2GB, so we map in windows
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long windowStart = 0;
+    private long fileSize;
+    private int lineNumber = 1;
+
+    private int vertexCount = -1;
+    private int edgeCount = 0;
+    private int declaredEdgeCount = 0;  // as the problem line says, may differ from the edges in the file
+    private int[] edgeSources = new int[0];
+    private int[] edgeTargets = new int[0];
+    private long loadTime;  // in nanoseconds
+
+    public DimacsLoader(String fileLocation) throws IOException {
+        long startTime = System.nanoTime();
+        try (FileChannel fileChannel = FileChannel.open(Paths.get(fileLocation), StandardOpenOption.READ)) {
+            channel = fileChannel;
+            fileSize = channel.size();
+            mapWindow(0);
+            parse();
+        } finally {
+            channel = null;
+            buffer = null;  // the mapping is released once the buffer is garbage collected
+        }
+        loadTime = System.nanoTime() - startTime;
+    }
+
+    private void mapWindow(long start) throws IOException {
+        windowStart = start;
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_SIZE, fileSize - start));
+    }
+
+    private int read() throws IOException {
+        // Returns the next byte of the file, or -1 at the end of the file.
+        if (!buffer.hasRemaining()){
+            long nextStart = windowStart + buffer.limit();
+            if (nextStart >= fileSize){
+                return -1;
+            }
+            mapWindow(nextStart);
+        }
+        return buffer.get();
+    }
+
+    private int peek() throws IOException {
+        int next = read();
+        if (next != -1){
+            buffer.position(buffer.position() - 1);
+        }
+        return next;
+    }
+
+    private void parse() throws IOException {
+        int next;
+        while ((next = read()) != -1) {
+            if (next == ' ' || next == '\t' || next == '\r') {
+                continue;  // leading whitespace
+            }
+            if (next == '\n') {
+                lineNumber++;  // blank line
+                continue;
+            }
+            if (next == 'e') {  // e node1 node2
+                if (vertexCount == -1) {
+                    throw new IOException("Line " + lineNumber + ": edge found before the problem line");
+                }
+                addEdge(readVertexId(), readVertexId());
+            } else if (next == 'p') {  // p edge nodeAmount edgeAmount
+                skipWhitespace();
+                skipWord();  // the format, "edge" or "col"
+                vertexCount = readInt();
+                declaredEdgeCount = readInt();
+                edgeSources = new int[declaredEdgeCount];
+                edgeTargets = new int[declaredEdgeCount];
+            }
+            // comments, and the rest of the lines we just parsed, are skipped
+            skipLine();
+        }
+        if (vertexCount == -1) {
+            throw new IOException("No problem line found");
+        }
+    }
+
+    private void addEdge(int source, int target) {
+        if (edgeCount == edgeSources.length) {
+            // The problem line promised fewer edges than there are, grow the arrays.
+            int newLength = Math.max(16, edgeCount * 2);
+            edgeSources = Arrays.copyOf(edgeSources, newLength);
+            edgeTargets = Arrays.copyOf(edgeTargets, newLength);
+        }
+        edgeSources[edgeCount] = source;
+        edgeTargets[edgeCount] = target;
+        edgeCount++;
+    }
+
+    private int readVertexId() throws IOException {
+        int id = readInt();
+        if (id < 1 || id > vertexCount) {
+            throw new IOException("Line " + lineNumber + ": vertex " + id + " does not exist");
+        }
+        return id - 1;  // in the notation used in the given files, vertex ids starts at 1. Here, we start at 0.
+    }
+
+    private int readInt() throws IOException {
+        skipWhitespace();
+        int value = 0;
+        int digitCount = 0;
+        int next;
+        while ((next = peek()) >= '0' && next <= '9') {
+            read();
+            value = value * 10 + (next - '0');
+            digitCount++;
+        }
+        if (digitCount == 0) {
+            throw new IOException("Line " + lineNumber + ": expected a number");
+        }
+        return value;
+    }
+
+    private void skipWhitespace() throws IOException {
+        int next;
+        while ((next = peek()) == ' ' || next == '\t' || next == '\r') {
+            read();
+        }
+    }
+
+    private void skipWord() throws IOException {
+        int next;
+        while ((next = peek()) != -1 && next != ' ' && next != '\t' && next != '\r' && next != '\n') {
+            read();
+        }
+    }
+
+    private void skipLine() throws IOException {
+        int next;
+        while ((next = read()) != -1) {
+            if (next == '\n') {
+                lineNumber++;
+                return;
+            }
+        }
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    public int getDeclaredEdgeCount() {
+        return declaredEdgeCount;
+    }
+
+    public int[] getEdgeSources() {
+        // Only the first getEdgeCount() entries are edges.
+        return edgeSources;
+    }
+
+    public int[] getEdgeTargets() {
+        // Only the first getEdgeCount() entries are edges.
+        return edgeTargets;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public long getLoadTime() {
+        // In nanoseconds.
+        return loadTime;
+    }
+
+    public double getThroughput() {
+        // Parse throughput in megabytes per second.
+        return loadTime == 0 ? 0 : (fileSize / (1024.0 * 1024.0)) / (loadTime / 1e9);
+    }
+}
@@ -1,40 +1,88 @@
-import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 
 public class Graph implements GraphInterface{
     private Vertex[] vertices;
     private ArrayList<Vertex> validVertices;
     private int colorCount = 0;
+    private long loadTime = 0;  // in nanoseconds
+    private double loadThroughput = 0;  // in megabytes per second
+    private long iterationCount = 0;  // tabu iterations done by the stochastic local search
+    private long searchTime = 0;  // in nanoseconds
+    private SolverConfig solverConfig = new SolverConfig();
+    private SolverListener listener = SolverListener.NONE;
+    private int lowerBound = 0;  // the size of the largest clique found, 0 if it hasn't been looked for yet
+    private int[] clique = null;  // the vertex ids of that clique, the bound holds as long as it is intact
+    private BitMatrix adjacencyMatrix = null;  // only for dense graphs, the neighbour lists are views on its rows
+    private Path checkpointFile = null;  // where the stochastic local search saves its state, null for nowhere
+    private boolean hasReducedVertices = false;  // until addNode, addEdge, removeNode or removeEdge restores them
+    private long updateTime = 0;  // of the last addNode, addEdge, removeNode or removeEdge, in nanoseconds
+    private Random repairRandom = null;  // for the tabu search of repairConflict
+    private int[] areaIndex = null;  // areaIndex[id] = index of the vertex in the area of localTabuSearch, or -1
+    // Scratch space of localTabuSearch, kept between updates and only grown when an area doesn't fit.
+    private final ArrayList<Vertex> area = new ArrayList<>();
+    private int[] areaColors = new int[0];
+    private int[] areaColorCount = new int[0];  // the gamma table of the area
+    private int[] areaTabooTimer = new int[0];
 
     public Graph(String fileLocation){
+        this(fileLocation, SolverListener.NONE);
+    }
+
+    public Graph(String fileLocation, SolverListener listener){
+        // The listener hears about every phase, starting with the load (see SolverListener, SolverMetrics).
+        this.listener = listener;
         try {  // using a try block in case the file location is invalid.
-            Scanner scanner = new Scanner(new File(fileLocation));
-            while (scanner.hasNextLine()) {
-                String input = scanner.nextLine();
-                if (input.charAt(0) == 'e') {  // e node1 node2
-                    String[] vertexIdStrings = input.split(" ");
-                    assert vertices != null;  // IntelliJ recommended this? what it does? No one knows?
-
-                    // in the notation used in the given files, vertex ids starts at 1. Here, we start at 0.
-                    Vertex vertex1 = vertices[Integer.parseInt(vertexIdStrings[1]) - 1];
-                    Vertex vertex2 = vertices[Integer.parseInt(vertexIdStrings[2]) - 1];
-                    vertex1.addEdge(vertex2);
-                    vertex2.addEdge(vertex1);
-
-                } else if (input.charAt(0) == 'p'){
-                    // create vertices:
-                    int vertexCount = Integer.parseInt(input.split(" ")[2]);  // p edges nodeAmount edgeAmount
-                    vertices = new Vertex[vertexCount];
-
-                    for (int i = 0; i < vertexCount; i++){
-                        vertices[i] = new Vertex(i);
-                    }
+            /*
+             * The file goes through the binary cache (see BinaryGraphFormat): after the first load, the graph is
+             * read from the .bin file next to it instead of parsing the text again. The rows come back sorted and
+             * without duplicate edges, and every edge is in the rows of both its ends.
+             */
+            long startTime = System.nanoTime();
+            CSRGraph graph = BinaryGraphFormat.loadCached(fileLocation);
+            int vertexCount = graph.getVertexCount();
+            int[] targets = graph.getTargets();
+
+            /*
+             * Dense graphs keep their edges in an adjacency matrix instead of adjacency lists: the neighbour list of
+             * every vertex is a view on its row of the matrix (see MatrixNeighbors), which costs |V|^2 / 8 bytes
+             * in total instead of a reference per edge end. It makes areNeighbors O(1) and the subset checks of
+             * the reduction word-wise. Dense is decided by the node and edge counts the file declares: the p line
+             * of a parsed .col file, or the header of its binary copy on a cache hit.
+             */
+            vertices = new Vertex[vertexCount];
+            if (BitMatrix.isDense(vertexCount, graph.getDeclaredEdgeCount())){
+                adjacencyMatrix = new BitMatrix(vertexCount);
+                for (int i = 0; i < vertexCount; i++){
+                    vertices[i] = new Vertex(i);
+                    vertices[i].adjacentVertices = new MatrixNeighbors(adjacencyMatrix, vertices, i);
+                }
+            } else {
+                for (int i = 0; i < vertexCount; i++){
+                    vertices[i] = new Vertex(i, graph.getNeighborEnd(i) - graph.getNeighborStart(i));
                 }
             }
-        } catch (FileNotFoundException e) {
+            for (int i = 0; i < vertexCount; i++){
+                Vertex vertex = vertices[i];
+                for (int j = graph.getNeighborStart(i); j < graph.getNeighborEnd(i); j++){
+                    vertex.addEdge(vertices[targets[j]]);
+                }
+            }
+
+            loadTime = System.nanoTime() - startTime;
+            // Measured against the size of the file that was read: the .col file, or its binary copy.
+            loadThroughput = (Files.size(graph.getSourceFile()) / (1024.0 * 1024.0)) / (loadTime / 1e9);
+            listener.loadFinished(vertexCount, graph.getNumberOfEdges(), loadTime);
+        } catch (NoSuchFileException e) {
             System.out.println("Specified file not found: " + fileLocation);
             e.printStackTrace();  // found this bit on https://www.w3schools.com/java/java_files_read.asp
+        } catch (IOException e) {
+            System.out.println("Could not read file: " + fileLocation);
+            e.printStackTrace();
         }
     }
 
@@ -90,6 +138,9 @@ public class Graph implements GraphInterface{
          * This should only be done between valid vertices, which can be checked with vertex.isReduced().
          * The reason for this is that a reduced vertex1 may have vertex2 as its neighbour, but not the other way around.
          */
+        if (adjacencyMatrix != null){
+            return adjacencyMatrix.get(u, v);
+        }
         Vertex vertexU = vertices[u];
         Vertex vertexV = vertices[v];
         return vertexU.adjacentVertices.contains(vertexV);
@@ -108,13 +159,22 @@ public class Graph implements GraphInterface{
         /*
          * Removes all references to the given node from the graph.
          * Note: this means this vertex is lost, and cannot be recovered, unlike a reduced vertex.
+         * The coloring of the other vertices stays proper, but the clique bound doesn't hold anymore if the
+         * vertex was in its clique.
          */
+        long startTime = System.nanoTime();
+        prepareForUpdates();
         Vertex vertexU = vertices[u];
-        validVertices.remove(vertexU);
+        removeValidVertex(vertexU);
         for (Vertex adjVertex: vertexU.adjacentVertices){
             adjVertex.removeEdge(vertexU);
         }
+        vertexU.adjacentVertices.clear();  // for dense graphs, so its row of the matrix is empty too
         vertices[u] = null;  // I believe this deletes all references to the vertex, which means the garbage collector will delete it
+        if (isInClique(u)){
+            lowerBound = 0;
+        }
+        updateTime = System.nanoTime() - startTime;
     }
 
     @Override
@@ -122,10 +182,422 @@ public class Graph implements GraphInterface{
         /*
          * Fully removes an edge from the graph.
          */
+        long startTime = System.nanoTime();
+        prepareForUpdates();
         Vertex vertexU = vertices[u];
         Vertex vertexV = vertices[v];
         vertexU.removeEdge(vertexV);
         vertexV.removeEdge(vertexU);
+        if (isInClique(u) && isInClique(v)){
+            lowerBound = 0;  // the clique lost this edge
+        }
+        updateTime = System.nanoTime() - startTime;
+    }
+
+    public int addNode() {
+        /*
+         * Adds an isolated vertex and returns its id, the next one after the current ids. If the graph is
+         * colored, the new vertex gets color 0, it has no neighbours to conflict with yet.
+         * The adjacency matrix has a fixed size, so a dense graph that grows is turned into adjacency lists.
+         */
+        long startTime = System.nanoTime();
+        prepareForUpdates();
+        dropAdjacencyMatrix();
+        int u = vertices.length;
+        vertices = Arrays.copyOf(vertices, u + 1);
+        Vertex vertexU = new Vertex(u);
+        vertices[u] = vertexU;
+        addValidVertex(vertexU);
+        if (colorCount > 0){
+            vertexU.setColor(0);
+        }
+        updateTime = System.nanoTime() - startTime;
+        return u;
+    }
+
+    public void addEdge(int u, int v) {
+        /*
+         * Adds edge (u,v). If the graph is colored and both ends have the same color, the coloring is repaired
+         * right away, around the new edge only (see repairConflict), so it stays proper after every update.
+         */
+        long startTime = System.nanoTime();
+        prepareForUpdates();
+        if (u == v || areNeighbors(u, v)){
+            updateTime = System.nanoTime() - startTime;
+            return;
+        }
+        Vertex vertexU = vertices[u];
+        Vertex vertexV = vertices[v];
+        vertexU.addEdge(vertexV);
+        vertexV.addEdge(vertexU);
+        if (colorCount > 0 && vertexU.getColor() == vertexV.getColor()){
+            repairConflict(vertexU, vertexV);
+        }
+        updateTime = System.nanoTime() - startTime;
+    }
+
+    private void prepareForUpdates(){
+        /*
+         * A reduction only holds for the graph it was applied to: after an update, a reduced vertex could
+         * conflict with a neighbour of its own that the vertex it was reduced to doesn't have. So the first
+         * update puts every reduced vertex back, with its edges, and with the color it had through the vertex
+         * it was reduced to (which is proper, that is why it could be reduced).
+         */
+        initialiseValidVertices();
+        if (!hasReducedVertices){
+            return;
+        }
+        ArrayList<Vertex> restored = new ArrayList<>();
+        for (Vertex vertex: vertices){
+            if (vertex != null && vertex.isReduced()){
+                restored.add(vertex);
+            }
+        }
+        // First the colors, while the reducedTo chains still exist.
+        int[] colors = new int[restored.size()];
+        int[] degrees = new int[restored.size()];
+        for (int i = 0; i < restored.size(); i++){
+            colors[i] = restored.get(i).getColor();
+        }
+        for (int i = 0; i < restored.size(); i++){
+            Vertex vertex = restored.get(i);
+            vertex.restore();
+            vertex.setColor(colors[i]);
+            // Neighbours that were removed after the reduction are still in the list of a reduced vertex.
+            vertex.adjacentVertices.removeIf(adjVertex -> vertices[adjVertex.getId()] != adjVertex);
+            degrees[i] = vertex.getDegree();
+        }
+        // Of two neighbours that were both reduced, only the one reduced first still has the other in its list,
+        // so adding every restored vertex to the lists of its neighbours never adds an edge twice. Only the
+        // edges that were in the lists before this loop are looked at, not the ones it adds: the lists are
+        // copied first, a row of the matrix doesn't keep added neighbours at the end like an ArrayList does.
+        Vertex[][] neighbors = new Vertex[restored.size()][];
+        for (int i = 0; i < restored.size(); i++){
+            neighbors[i] = restored.get(i).adjacentVertices.toArray(new Vertex[degrees[i]]);
+        }
+        for (int i = 0; i < restored.size(); i++){
+            Vertex vertex = restored.get(i);
+            for (Vertex adjVertex: neighbors[i]){
+                adjVertex.addEdge(vertex);
+            }
+            addValidVertex(vertex);
+        }
+        hasReducedVertices = false;
+    }
+
+    private void dropAdjacencyMatrix(){
+        // Turns the rows of the matrix back into adjacency lists, for a graph that won't be dense anymore.
+        if (adjacencyMatrix == null){
+            return;
+        }
+        for (Vertex vertex: vertices){
+            if (vertex != null){
+                vertex.adjacentVertices = new ArrayList<>(vertex.adjacentVertices);
+            }
+        }
+        adjacencyMatrix = null;
+    }
+
+    private static class MatrixNeighbors extends AbstractList<Vertex> {
+        /*
+         * The neighbour list of a vertex of a dense graph: a view on its row of the adjacency matrix, in id
+         * order. Adding and removing a neighbour sets and clears a bit. Iterating walks the set bits, so it
+         * costs |V| / 64 words on top of the neighbours. get(index) continues from the previous get when the
+         * index goes up, so the index loops over the neighbours (see Vertex.changeColor) stay linear.
+         */
+        private final BitMatrix matrix;
+        private final Vertex[] vertices;
+        private final int row;
+        private int size = 0;
+        private int cursorIndex = -1;  // the index and id of the last get, -1 after a change
+        private int cursorId = -1;
+
+        MatrixNeighbors(BitMatrix matrix, Vertex[] vertices, int row){
+            this.matrix = matrix;
+            this.vertices = vertices;
+            this.row = row;
+        }
+
+        @Override
+        public Vertex get(int index) {
+            if (index < 0 || index >= size){
+                throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+            }
+            if (cursorIndex < 0 || index < cursorIndex){
+                cursorIndex = -1;
+                cursorId = -1;
+            }
+            while (cursorIndex < index){
+                cursorId = matrix.nextSetBit(row, cursorId + 1);
+                cursorIndex++;
+            }
+            return vertices[cursorId];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object object) {
+            return object instanceof Vertex && matrix.get(row, ((Vertex) object).getId());
+        }
+
+        @Override
+        public boolean add(Vertex vertex) {
+            // A neighbour that is already in the row isn't added twice.
+            if (matrix.get(row, vertex.getId())){
+                return false;
+            }
+            matrix.set(row, vertex.getId());
+            changed(1);
+            return true;
+        }
+
+        @Override
+        public boolean remove(Object object) {
+            if (!contains(object)){
+                return false;
+            }
+            matrix.clear(row, ((Vertex) object).getId());
+            changed(-1);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            matrix.clearRow(row);
+            changed(-size);
+        }
+
+        @Override
+        public Iterator<Vertex> iterator() {
+            return new Iterator<Vertex>() {
+                private int nextId = matrix.nextSetBit(row, 0);
+                private int lastId = -1;
+
+                @Override
+                public boolean hasNext() {
+                    return nextId >= 0;
+                }
+
+                @Override
+                public Vertex next() {
+                    if (nextId < 0){
+                        throw new NoSuchElementException();
+                    }
+                    lastId = nextId;
+                    nextId = matrix.nextSetBit(row, nextId + 1);
+                    return vertices[lastId];
+                }
+
+                @Override
+                public void remove() {
+                    if (lastId < 0){
+                        throw new IllegalStateException();
+                    }
+                    matrix.clear(row, lastId);
+                    lastId = -1;
+                    changed(-1);
+                }
+            };
+        }
+
+        private void changed(int sizeChange){
+            size += sizeChange;
+            cursorIndex = -1;
+            modCount++;
+        }
+    }
+
+    private void initialiseValidVertices(){
+        if (validVertices == null) {
+            validVertices = new ArrayList<>(Arrays.asList(vertices));
+            validVertices.removeAll(Collections.singleton(null));
+        }
+    }
+
+    private void addValidVertex(Vertex vertex){
+        vertex.setValidIndex(validVertices.size());
+        validVertices.add(vertex);
+    }
+
+    private void removeValidVertex(Vertex vertex){
+        /*
+         * O(1): the last vertex of the list takes the place of the removed one. The list isn't sorted by degree
+         * afterwards, but only the reduction sorts it, and that sorts it again.
+         * The indices of the vertices are outdated after the list was filtered or sorted, then they are set again
+         * first, so a series of removals is O(n) once and O(1) after that.
+         */
+        int index = vertex.getValidIndex();
+        if (index < 0 || index >= validVertices.size() || validVertices.get(index) != vertex){
+            for (int i = 0; i < validVertices.size(); i++){
+                validVertices.get(i).setValidIndex(i);
+            }
+            index = vertex.getValidIndex();
+            if (index < 0 || index >= validVertices.size() || validVertices.get(index) != vertex){
+                return;  // not a valid vertex
+            }
+        }
+        Vertex last = validVertices.remove(validVertices.size() - 1);
+        if (last != vertex){
+            validVertices.set(index, last);
+            last.setValidIndex(index);
+        }
+        vertex.setValidIndex(-1);
+    }
+
+    private void repairConflict(Vertex vertexU, Vertex vertexV){
+        /*
+         * The new edge (u,v) is the only conflict. The cheapest way out first:
+         *  1. u or v gets a color none of its neighbours has,
+         *  2. a short tabu search (repairIterations, see SolverConfig) that only moves u, v and their neighbours,
+         *     with the same amount of colors,
+         *  3. only if that fails, the amount of colors has to grow: v gets a new color, and a tabu search on
+         *     the whole graph (TabuSearch, on getCurrentGraph) tries to get rid of it again, for at most
+         *     repairTimeLimit (see SolverConfig), so an update never waits for a whole colorTimeLimit.
+         *     This is part of the update, not a search of its own: the listener isn't told about it, and no
+         *     checkpoints are written. It doesn't try if the clique bound already needs the extra color; an
+         *     added edge can't make a clique smaller, so a bound that was found before still holds, and the
+         *     update never looks for a new one.
+         */
+        if (repairRandom == null){
+            repairRandom = new Random(solverConfig.getSeed());
+        }
+        if (recolorWithFreeColor(vertexU) || recolorWithFreeColor(vertexV) || localTabuSearch(vertexU, vertexV)){
+            return;
+        }
+        vertexV.setColor(colorCount);
+        colorCount++;
+        if (solverConfig.isTargetReached(colorCount) || colorCount <= lowerBound){
+            return;
+        }
+        CSRGraph graph = getCurrentGraph();
+        int[] coloring = getExpandedColoring();
+        TabuSearch search = new TabuSearch(graph, coloring, colorCount, solverConfig, repairRandom.nextLong());
+        long deadline = SolverConfig.deadline(System.nanoTime(), solverConfig.getRepairTimeLimit());
+        if (search.search(colorCount - 1, deadline, null)){
+            search.copyColoringTo(coloring);
+            for (Vertex vertex: validVertices){
+                vertex.setColor(coloring[vertex.getId()]);
+            }
+            colorCount--;
+        }
+    }
+
+    private boolean recolorWithFreeColor(Vertex vertex){
+        int color = vertex.getConnectedColors(colorCount).nextClearBit(0);
+        if (color < colorCount){
+            vertex.setColor(color);
+            return true;
+        }
+        return false;
+    }
+
+    private boolean localTabuSearch(Vertex vertexU, Vertex vertexV){
+        /*
+         * TabuCol on a small area: u, v and their neighbours. The vertices around it keep their colors, but do
+         * count in the conflict table, so a move that creates a conflict with them is never mistaken for a good
+         * one. Everything is indexed by the position in the area, and the colors are only written back to the
+         * vertices if the area ends up without conflicts.
+         */
+        if (areaIndex == null || areaIndex.length < vertices.length){
+            areaIndex = new int[Math.max(vertices.length, 2 * (areaIndex == null ? 0 : areaIndex.length))];
+            Arrays.fill(areaIndex, -1);
+        }
+        area.clear();
+        for (Vertex vertex: new Vertex[]{vertexU, vertexV}){
+            if (areaIndex[vertex.getId()] == -1){
+                areaIndex[vertex.getId()] = area.size();
+                area.add(vertex);
+            }
+            for (Vertex adjVertex: vertex.adjacentVertices){
+                if (areaIndex[adjVertex.getId()] == -1){
+                    areaIndex[adjVertex.getId()] = area.size();
+                    area.add(adjVertex);
+                }
+            }
+        }
+
+        int k = colorCount;
+        int size = area.size();
+        if (areaColors.length < size){
+            areaColors = new int[Math.max(size, 2 * areaColors.length)];
+        }
+        if (areaColorCount.length < size * k){
+            areaColorCount = new int[Math.max(size * k, 2 * areaColorCount.length)];
+            areaTabooTimer = new int[areaColorCount.length];
+        } else {
+            Arrays.fill(areaColorCount, 0, size * k, 0);
+            Arrays.fill(areaTabooTimer, 0, size * k, 0);
+        }
+        int[] colors = areaColors;
+        int[] adjacentColorCount = areaColorCount;
+        int[] tabooTimer = areaTabooTimer;
+        int infeasibleEdgeCount = 0;
+        for (int i = 0; i < size; i++){
+            colors[i] = area.get(i).getColor();
+        }
+        for (int i = 0; i < size; i++){
+            for (Vertex adjVertex: area.get(i).adjacentVertices){
+                adjacentColorCount[i * k + adjVertex.getColor()]++;
+                int j = areaIndex[adjVertex.getId()];
+                if (adjVertex.getColor() == colors[i] && (j == -1 || j > i)){  // edges in the area only once
+                    infeasibleEdgeCount++;
+                }
+            }
+        }
+
+        for (int iteration = 0; infeasibleEdgeCount > 0 && iteration < solverConfig.getRepairIterations(); iteration++){
+            // The best non-taboo move of a vertex in conflict, a taboo move only if it solves every conflict.
+            int bestVertex = -1;
+            int bestColor = -1;
+            int bestDelta = Integer.MAX_VALUE;
+            int conflictingCount = 0;
+            for (int i = 0; i < size; i++){
+                int row = i * k;
+                if (adjacentColorCount[row + colors[i]] == 0){
+                    continue;
+                }
+                conflictingCount++;
+                for (int color = 0; color < k; color++){
+                    if (color == colors[i]){
+                        continue;
+                    }
+                    int delta = adjacentColorCount[row + color] - adjacentColorCount[row + colors[i]];
+                    boolean allowed = tabooTimer[row + color] <= iteration || infeasibleEdgeCount + delta == 0;
+                    if (allowed && delta < bestDelta){
+                        bestDelta = delta;
+                        bestVertex = i;
+                        bestColor = color;
+                    }
+                }
+            }
+            if (bestVertex == -1){
+                continue;  // every move is taboo, wait for one to become free
+            }
+            int oldColor = colors[bestVertex];
+            for (Vertex adjVertex: area.get(bestVertex).adjacentVertices){
+                int j = areaIndex[adjVertex.getId()];
+                if (j != -1){
+                    adjacentColorCount[j * k + oldColor]--;
+                    adjacentColorCount[j * k + bestColor]++;
+                }
+            }
+            colors[bestVertex] = bestColor;
+            infeasibleEdgeCount += bestDelta;
+            tabooTimer[bestVertex * k + oldColor] = iteration + solverConfig.tabooTenure(repairRandom, conflictingCount);
+        }
+
+        for (int i = 0; i < size; i++){
+            Vertex vertex = area.get(i);
+            if (infeasibleEdgeCount == 0){
+                vertex.setColor(colors[i]);
+            }
+            areaIndex[vertex.getId()] = -1;  // ready for the next repair
+        }
+        return infeasibleEdgeCount == 0;
     }
 
     @Override
@@ -143,75 +615,174 @@ public class Graph implements GraphInterface{
 
     @Override
     public void applyReduction() {
+        /*
+         * Reduces every vertex whose neighbours are a subset of the neighbours of another vertex, since it can
+         * always get the color of that vertex. Reducing a vertex removes edges, which can make new subsets appear,
+         * so passes are repeated until nothing more reduces.
+         */
+        long startTime = System.nanoTime();
         if (validVertices == null) {
             validVertices = new ArrayList<>(Arrays.asList(vertices));
             // According to some guy on StackOverflow, the "new ArrayList..." iterates over the elements,
             // properly creating a copy of the array.
+            validVertices.removeAll(Collections.singleton(null));
         }
+        int validCount = validVertices.size();
 
-        for (int i = 0, verticesSize = vertices.length; i < verticesSize; i++) {
-            Vertex vertex1 = vertices[i];
+        while (applyReductionPass() > 0) {
+            // keep reducing
+        }
+        listener.reductionFinished(validCount - validVertices.size(), System.nanoTime() - startTime);
+    }
+
+    public int applyReductionPass() {
+        /*
+         * A single reduction pass, returns the amount of vertices that were reduced.
+         * Comparing every pair of vertices is far too slow, so for vertex a we only look at candidates b that
+         * are neighbours of the neighbour of a with the smallest degree: if a's neighbours are a subset of b's,
+         * b has to be connected to all of them. Candidates are then pruned by degree, and by a 64 bit signature
+         * of the neighbourhood (one bit per hashed neighbour id): if a has a bit that b doesn't have, a can't be
+         * a subset of b. Only the survivors get an exact subset check, a merge of the sorted neighbour ids, or
+         * for dense graphs a word-wise comparison of the rows of the adjacency matrix.
+         */
+        if (validVertices == null) {
+            validVertices = new ArrayList<>(Arrays.asList(vertices));
+            validVertices.removeAll(Collections.singleton(null));
+        }
+        int[][] neighborIds = new int[vertices.length][];
+        long[] signatures = new long[vertices.length];
+        for (Vertex vertex: validVertices){
+            long signature = 0;
+            for (Vertex adjVertex: vertex.adjacentVertices){
+                signature |= 1L << signatureBit(adjVertex.getId());
+            }
+            signatures[vertex.getId()] = signature;
+            if (adjacencyMatrix == null){
+                int[] ids = new int[vertex.getDegree()];
+                int index = 0;
+                for (Vertex adjVertex: vertex.adjacentVertices){
+                    ids[index++] = adjVertex.getId();
+                }
+                Arrays.sort(ids);
+                neighborIds[vertex.getId()] = ids;
+            }
+        }
 
-            // Skip any already reduced vertices.
-            if (vertex1.isReduced()){
+        // Note: reducing a vertex removes it from the adjacency lists of its neighbours, but not from the
+        // neighborIds and signatures computed above. That can only hide subsets until the next pass,
+        // it never reports a subset that isn't one.
+        int reducedCount = 0;
+        Vertex anyValidVertex = null;  // isolated vertices are a subset of anything
+        for (Vertex vertex: validVertices){
+            if (anyValidVertex == null){
+                anyValidVertex = vertex;
+            } else if (vertex.getDegree() == 0){
+                reduce(vertex, anyValidVertex);
+                reducedCount++;
+                continue;
+            }
+            if (vertex.getDegree() == 0){
                 continue;
             }
-            for (int j = i + 1, size = vertices.length; j < size; j++) {
-                Vertex vertex2 = vertices[j];
 
-                // Skip any already reduced vertices.
-                if (vertex2.isReduced()){
+            Vertex pivot = null;
+            for (Vertex adjVertex: vertex.adjacentVertices){
+                if (pivot == null || adjVertex.getDegree() < pivot.getDegree()){
+                    pivot = adjVertex;
+                }
+            }
+            int[] ids = neighborIds[vertex.getId()];  // null for dense graphs
+            long signature = signatures[vertex.getId()];
+            for (Vertex candidate: pivot.adjacentVertices){
+                int candidateId = candidate.getId();
+                if (candidate == vertex || candidate.isReduced() || candidate.getDegree() < vertex.getDegree()
+                        || (signature & ~signatures[candidateId]) != 0){
                     continue;
                 }
-
-                if (vertex1.adjacentVertices.containsAll(vertex2.adjacentVertices)){
-                    vertex2.reduceTo(vertex1);  // 2 is subset of 1
-                    validVertices.set(j, null);
-                } else if (vertex2.adjacentVertices.containsAll(vertex1.adjacentVertices)){
-                    vertex1.reduceTo(vertex2);  // 1 is subset of 2
-                    validVertices.set(i, null);
+                boolean subset = adjacencyMatrix != null ? adjacencyMatrix.isSubset(vertex.getId(), candidateId)
+                        : isSubset(ids, neighborIds[candidateId]);
+                if (subset){
+                    reduce(vertex, candidate);
+                    reducedCount++;
+                    break;
                 }
             }
         }
 
-        // Remove the remaining null objects from the validVertices list, and sort by degree.
+        // Remove the reduced vertices from the validVertices list, and sort by degree.
         // "Degree-sorting" will be helpful for applying the DegreeSaturation algorithm.
         // Note: degree must be decreasing.
-        validVertices.removeAll(Collections.singleton(null));
+        validVertices.removeIf(Vertex::isReduced);
         validVertices.sort(new ReverseDegreeComparator());
+        return reducedCount;
+    }
+
+    private void reduce(Vertex vertex, Vertex to){
+        // vertex.reduceTo removes the edges to vertex from the lists of its neighbours (for dense graphs, from
+        // the rows of the matrix).
+        vertex.reduceTo(to);
+        hasReducedVertices = true;
+    }
+
+    private static int signatureBit(int id){
+        // Fibonacci hashing, spreads consecutive ids over the 64 bits.
+        return (id * 0x9E3779B1) >>> 26;
+    }
+
+    private static boolean isSubset(int[] ids, int[] otherIds){
+        // Both arrays must be sorted.
+        int j = 0;
+        for (int id: ids){
+            while (j < otherIds.length && otherIds[j] < id){
+                j++;
+            }
+            if (j == otherIds.length || otherIds[j] != id){
+                return false;
+            }
+            j++;
+        }
+        return true;
     }
 
     @Override
     public void applyConstructionHeuristic() {
-        for (int uncoloredCount = validVertices.size(); uncoloredCount > 0; uncoloredCount--){
-            Vertex maxSaturatedVertex = maximalSaturatedVertex();  // O(n*k) with k the number of connected edges
-            BitSet connectedColors = maxSaturatedVertex.getConnectedColors(colorCount);  // O(k)
-            int minimalColor = colorCount;
-            for (int color = 0; color < connectedColors.size(); color++){
-                if (!connectedColors.get(color)){
-                    minimalColor = color;
-                    break;
-                }
-            }
+        /*
+         * DSatur. Instead of recalculating every saturation to find the next vertex, we keep the set of
+         * neighbouring colors of every vertex up to date, and keep the uncolored vertices in a SaturationQueue.
+         * Picking the next vertex is O(log n), and coloring it costs O(degree * log n).
+         */
+        long startTime = System.nanoTime();
+        if (validVertices == null) {
+            validVertices = new ArrayList<>(Arrays.asList(vertices));
+            validVertices.removeAll(Collections.singleton(null));
+        }
+        SaturationQueue queue = new SaturationQueue(vertices.length);
+        BitSet[] adjacentColors = new BitSet[vertices.length];  // the colors of the neighbours, per vertex id
+        for (Vertex vertex: validVertices){
+            queue.add(vertex.getId(), vertex.getDegree());
+            adjacentColors[vertex.getId()] = new BitSet();
+        }
+        colorCount = 0;  // a coloring from before is replaced, not added to
+
+        while (!queue.isEmpty()){
+            Vertex maxSaturatedVertex = vertices[queue.poll()];  // O(log n)
+            int minimalColor = adjacentColors[maxSaturatedVertex.getId()].nextClearBit(0);
             if (minimalColor == colorCount){
                 colorCount++;  // A new color has been added, colorCount must increase.
             }
             maxSaturatedVertex.setColor(minimalColor);
-        }
+            adjacentColors[maxSaturatedVertex.getId()] = null;  // not needed anymore
 
-    }
-
-    public Vertex maximalSaturatedVertex(){
-        Vertex maxSaturatedVertex = null;
-        int maxSaturation = -1;
-
-        for (Vertex vertex: validVertices){
-            if (vertex.getColor() == -1 && vertex.getSaturation(colorCount) > maxSaturation){
-                // The vertex is uncolored and, so far, is the vertex with the largest saturation.
-                maxSaturatedVertex = vertex;
+            for (Vertex adjVertex: maxSaturatedVertex.adjacentVertices){
+                int adjId = adjVertex.getId();
+                if (queue.contains(adjId) && !adjacentColors[adjId].get(minimalColor)){
+                    // The color is new to this uncolored neighbour, so its saturation increases.
+                    adjacentColors[adjId].set(minimalColor);
+                    queue.increaseSaturation(adjId);
+                }
             }
         }
-        return maxSaturatedVertex;
+        listener.constructionFinished(colorCount, System.nanoTime() - startTime);
     }
 
     @Override
@@ -220,25 +791,103 @@ public class Graph implements GraphInterface{
             System.out.println("The graph is still uncolored, cannot improve coloring.");
             return;
         }
+        stochasticLocalSearch(null, new SearchRandom(solverConfig.getSeed()));
+    }
+
+    public void resumeStochasticLocalSearchAlgorithm(String checkpointLocation) {
+        /*
+         * Continues the stochastic local search that wrote the given checkpoint (see setCheckpointFile), from
+         * its best coloring, the coloring it was searching, its taboo timers and its Random.
+         * The graph must be loaded from the same file and reduced the same way as the one that was searched,
+         * applyConstructionHeuristic isn't needed.
+         */
+        try {
+            Checkpoint checkpoint = Checkpoint.read(Paths.get(checkpointLocation));
+            if (validVertices == null) {
+                validVertices = new ArrayList<>(Arrays.asList(vertices));
+                validVertices.removeAll(Collections.singleton(null));
+            }
+            boolean matches = checkpoint.getVertexCount() == vertices.length;
+            for (int i = 0; matches && i < vertices.length; i++){
+                boolean valid = vertices[i] != null && !vertices[i].isReduced();
+                matches = (checkpoint.getBestColor(i) != -1) == valid;
+            }
+            if (!matches){
+                System.out.println("The checkpoint was made for another graph, or another reduction: " + checkpointLocation);
+                return;
+            }
+            for (Vertex vertex: validVertices){
+                vertex.setColor(checkpoint.getBestColor(vertex.getId()));
+            }
+            colorCount = checkpoint.getColorCount();
+            iterationCount = checkpoint.getIterationCount();
+            stochasticLocalSearch(checkpoint, checkpoint.getRandom());
+        } catch (NoSuchFileException e) {
+            System.out.println("Specified checkpoint not found: " + checkpointLocation);
+        } catch (IOException e) {
+            System.out.println("Could not read checkpoint: " + checkpointLocation);
+            e.printStackTrace();
+        }
+    }
+
+    private void stochasticLocalSearch(Checkpoint resume, SearchRandom r) {
+        // The search itself, from the current coloring, or from where the checkpoint resume left off.
+        // r is the object for calculating a random integer.
         int tabooClock = 0;
         int infeasibleEdgeCount = 0;
-        int conflictCount;
+        long iterationLimit = iterationCount + solverConfig.getMaxIterations();
 
-        // First, we save the current coloring.
-        HashMap<Integer,Integer> validColoring = new HashMap<>();
+        // First, we save the current coloring, and build the conflict table: for every vertex and every color,
+        // the amount of neighbours with that color. changeColor keeps it up to date from here on.
+        // The taboo timers are a flat int array per vertex, and one seeded Random is used for the whole search,
+        // so nothing gets allocated while moving vertices around.
+        // The vertices in conflict are kept in a ConflictSet, which changeColor keeps up to date, so every
+        // iteration only looks at the conflicting vertices instead of at all of them.
+        // The best coloring is kept in an int array indexed by vertex id (-1 for reduced vertices), so it can be
+        // copied into a checkpoint quickly.
+        int[] validColoring = new int[vertices.length];
+        Arrays.fill(validColoring, -1);
+        ConflictSet conflicts = new ConflictSet(validVertices.size());
         for (Vertex vertex: validVertices){
-            validColoring.put(vertex.getId(), vertex.getColor());
+            validColoring[vertex.getId()] = vertex.getColor();
+            vertex.initialiseAdjacentColorCount(colorCount);
+            vertex.initialiseTabooTimer(colorCount);
+            vertex.setConflictSet(conflicts);
         }
+        if (resume != null){
+            // Back to the coloring the checkpointed search was working on, with its taboo timers.
+            // If it was searching, its colors are all below colorCount - 1, and "messing up" the coloring below
+            // changes nothing.
+            tabooClock = resume.getTabooClock();
+            for (Vertex vertex: validVertices){
+                for (int color = 0; color < colorCount; color++){
+                    vertex.setTabooTimer(color, resume.getTabooTimer(vertex.getId(), color));
+                }
+                int currentColor = resume.getCurrentColor(vertex.getId());
+                if (currentColor != vertex.getColor()){
+                    infeasibleEdgeCount += vertex.changeColor(currentColor);
+                }
+            }
+        }
+        // No need to search below the clique bound, that is the chromatic number already. It is found before the
+        // search is timed, so the search time and the iterations per second are those of the search alone.
+        int bound = searchBound();
+        long searchStartTime = System.nanoTime();
+        CheckpointWriter checkpointWriter = checkpointFile == null ? null : new CheckpointWriter(checkpointFile);
+        long checkpointTime = searchStartTime;  // of the last checkpoint
 
         // LOOP 1: loop as long as we can
         // "Mess up" the coloring: entirely delete the "last" color (with the largest index),
         // and figure out which vertices are in conflict
-        long startTime = System.currentTimeMillis();
-        boolean timeNotDepleted = true;
+        long totalDeadline = SolverConfig.deadline(searchStartTime, solverConfig.getTotalTimeLimit());
+        long colorDeadline = SolverConfig.earliest(totalDeadline,
+                SolverConfig.deadline(searchStartTime, solverConfig.getColorTimeLimit()));
+        boolean timeNotDepleted = !solverConfig.isTargetReached(colorCount) && colorCount > bound;
+        long colorStartTime = searchStartTime;
+        long startIterationCount = iterationCount;
+        listener.searchStarted(colorCount);
 
         while (timeNotDepleted) {
-            Random r = new Random();  // object for calculating a random integer
-
             // Messing up the current coloring by removing the last color:
             for (Vertex vertex: validVertices){
                 if (vertex.getColor() == colorCount - 1){
@@ -252,53 +901,71 @@ public class Graph implements GraphInterface{
             // Look for vertices which improve the coloring, using the restricted tabu-1-exchange.
             while (infeasibleEdgeCount != 0){
                 // APPLY TABU-1-EX:
-                // Step 1: Find the best vertex with the best color change out of all possibilities
-                Vertex bestVertex;
-                int bestColor;
-                int bestInfeasibleEdgeCount;
+                // Step 1: Find the best vertex with the best color change out of all possibilities.
+                // Only vertices in conflict are considered. A taboo move is only allowed if it solves every
+                // conflict, and if every move is taboo, we take the best taboo move.
+                Vertex bestVertex = null;
+                int bestColor = -1;
+                int bestInfeasibleEdgeCount = Integer.MAX_VALUE;
+                Vertex bestTabooVertex = null;
+                int bestTabooColor = -1;
+                int bestTabooInfeasibleEdgeCount = Integer.MAX_VALUE;
                 int iteratedInfeasibleEdgeCount;
 
-                // we take the first vertex at first, and check to see how it changes the infeasibleEdgeCount
-                // after changing it to either the first or the second color.
-                // Then, we check every other vertex and color and keep track of the best one.
-                // Note: this means there is a redundant check to the first vertex, however, as you can clearly see,
-                // this really doesn't bother me because I do not care.
-                bestVertex = validVertices.get(0);
-                bestColor = bestVertex.getColor() == 0 ? 1 : 0;
-                bestInfeasibleEdgeCount = infeasibleEdgeCount + bestVertex.calculateNetInfeasibleEdgeCount(bestColor);
-                for (Vertex vertex: validVertices){
-                    if (vertex.isInConflict()){
-                        for (int i = 0; i < colorCount - 1; i++){
-                            if (vertex.getColor() == i){  // There HAS to be a color change, so we MUST skip this condition.
-                                continue;
-                            }
-                            iteratedInfeasibleEdgeCount = infeasibleEdgeCount + vertex.calculateNetInfeasibleEdgeCount(i);
+                // Thanks to the conflict table, every (vertex, color) pair is evaluated in O(1).
+                for (int j = 0, size = conflicts.size(); j < size; j++){
+                    Vertex vertex = conflicts.get(j);
+                    for (int i = 0; i < colorCount - 1; i++){
+                        if (vertex.getColor() == i){  // There HAS to be a color change, so we MUST skip this condition.
+                            continue;
+                        }
+                        iteratedInfeasibleEdgeCount = infeasibleEdgeCount + vertex.calculateNetInfeasibleEdgeCount(i);
+                        if (vertex.getTabooTimer(i) <= tabooClock || iteratedInfeasibleEdgeCount == 0){
                             if (iteratedInfeasibleEdgeCount < bestInfeasibleEdgeCount){
                                 bestInfeasibleEdgeCount = iteratedInfeasibleEdgeCount;
-                                if (vertex.getTabooTimer(i) <= tabooClock)
                                 bestColor = i;
                                 bestVertex = vertex;
                             }
+                        } else if (iteratedInfeasibleEdgeCount < bestTabooInfeasibleEdgeCount){
+                            bestTabooInfeasibleEdgeCount = iteratedInfeasibleEdgeCount;
+                            bestTabooColor = i;
+                            bestTabooVertex = vertex;
                         }
                     }
                 }
-
-                // Step 2: Calculate the amount of vertices that are in conflict.
-                conflictCount = 0;
-                for (Vertex vertex: validVertices){
-                    if (vertex.isInConflict()){
-                        conflictCount++;
-                    }
+                if (bestVertex == null){
+                    bestVertex = bestTabooVertex;
+                    bestColor = bestTabooColor;
                 }
 
-                // Step 3: Apply the color change, and set the tabu timer for the color switched vertex
-                infeasibleEdgeCount += bestVertex.changeColor(bestColor);
-                bestVertex.setTabooTimer(tabooClock, 10, 30, conflictCount, bestColor);  // TODO: find good values for A and delta
+                // Step 2: Apply the color change, and make moving back to the old color taboo for a while.
+                // The taboo time depends on the amount of vertices in conflict, which is the size of the set.
+                if (bestVertex != null){
+                    int oldColor = bestVertex.getColor();
+                    infeasibleEdgeCount += bestVertex.changeColor(bestColor);
+                    bestVertex.setTabooTimer(oldColor, tabooClock + solverConfig.tabooTenure(r, conflicts.size()));
+                }
+                tabooClock++;
+                iterationCount++;
 
-                // Step 4: Check if the time has not yet been depleted
-                if (System.currentTimeMillis() - startTime > 60000){  // TODO: find good value for elapsed time check
-                    timeNotDepleted = false;
-                    break;
+                // Step 3: Check if the time has not yet been depleted, only every so many iterations.
+                // The listener hears about the progress at the same moments.
+                if (iterationCount % solverConfig.getCheckInterval() == 0){
+                    long now = System.nanoTime();
+                    long searchedIterations = iterationCount - startIterationCount;
+                    listener.searchProgress(searchedIterations, searchedIterations
+                            / Math.max((now - searchStartTime) / 1e9, 1e-9), infeasibleEdgeCount, colorCount - 1);
+                    if (now - colorDeadline > 0
+                            || (solverConfig.getMaxIterations() > 0 && iterationCount >= iterationLimit)){
+                        timeNotDepleted = false;
+                        break;
+                    }
+                    // The search thread only copies its state, the CheckpointWriter writes it to the file.
+                    if (checkpointWriter != null
+                            && now - checkpointTime > solverConfig.getCheckpointInterval() * 1_000_000L){
+                        checkpointTime = now;
+                        checkpointWriter.offer(createCheckpoint(validColoring, tabooClock, r));
+                    }
                 }
             }
 
@@ -306,29 +973,236 @@ public class Graph implements GraphInterface{
             // Update validColoring with new coloring, and lower colorCount.
             if (timeNotDepleted) {
                 for (Vertex vertex : validVertices) {
-                    validColoring.put(vertex.getId(), vertex.getColor());
+                    validColoring[vertex.getId()] = vertex.getColor();
                 }
                 colorCount--;
+                timeNotDepleted = !solverConfig.isTargetReached(colorCount) && colorCount > bound;
+                listener.colorCountReached(colorCount, System.nanoTime() - colorStartTime);
             }
-            startTime = System.currentTimeMillis();  // updating startTime, we want to test the next coloring
+            colorStartTime = System.nanoTime();
+            // updating the deadline, we want to test the next coloring
+            colorDeadline = SolverConfig.earliest(totalDeadline,
+                    SolverConfig.deadline(System.nanoTime(), solverConfig.getColorTimeLimit()));
 
         }
         // END LOOP 1
+        // A last checkpoint with the state the search ended in, so it can be resumed with more time.
+        if (checkpointWriter != null){
+            checkpointWriter.write(createCheckpoint(validColoring, tabooClock, r));
+            checkpointWriter.close();
+        }
         // Restore coloring using last validColoring
         for (Vertex vertex: validVertices){
-            vertex.setColor(validColoring.get(vertex.getId()));
+            vertex.setColor(validColoring[vertex.getId()]);
+            vertex.clearAdjacentColorCount();
+            vertex.clearTabooTimer();
+            vertex.setConflictSet(null);
+        }
+        if (!isProperlyColored()){
+            System.out.println("The stochastic local search ended with a coloring that is not proper.");
         }
+        long elapsedTime = System.nanoTime() - searchStartTime;
+        searchTime += elapsedTime;
+        listener.searchFinished(colorCount, iterationCount - startIterationCount, elapsedTime);
+    }
+
+    private Checkpoint createCheckpoint(int[] validColoring, int tabooClock, SearchRandom r){
+        int[] currentColoring = new int[vertices.length];
+        Arrays.fill(currentColoring, -1);
+        int[] tabooTimer = new int[vertices.length * colorCount];
+        for (Vertex vertex: validVertices){
+            currentColoring[vertex.getId()] = vertex.getColor();
+            for (int color = 0; color < colorCount; color++){
+                tabooTimer[vertex.getId() * colorCount + color] = vertex.getTabooTimer(color);
+            }
+        }
+        return new Checkpoint(colorCount, tabooClock, iterationCount, r, validColoring.clone(), currentColoring,
+                tabooTimer);
     }
 
     public int getColorCount() {
         return colorCount;
     }
 
+    public long getLoadTime() {
+        return loadTime;
+    }
+
+    public double getLoadThroughput() {
+        return loadThroughput;
+    }
+
+    private int searchBound(){
+        // The clique bound the searches stop at, found first if needed. 0 if the SolverConfig turns it off.
+        if (!solverConfig.isCliqueBoundEnabled()){
+            return 0;
+        }
+        if (lowerBound == 0){
+            applyLowerBound();
+        }
+        return lowerBound;
+    }
+
+    public int applyLowerBound() {
+        /*
+         * Looks for a large clique (see CliqueBound), every vertex of which needs its own color. Its size is a
+         * lower bound on the amount of colors, and applyStochasticLocalSearchAlgorithm stops when it gets there.
+         * The reduction keeps the chromatic number the same, so the bound holds for the whole graph.
+         */
+        long startTime = System.nanoTime();
+        if (validVertices == null) {
+            validVertices = new ArrayList<>(Arrays.asList(vertices));
+            validVertices.removeAll(Collections.singleton(null));
+        }
+        int[] validIds = new int[validVertices.size()];
+        for (int i = 0; i < validIds.length; i++){
+            validIds[i] = validVertices.get(i).getId();
+        }
+        CliqueBound bound = new CliqueBound(new CliqueBound.Adjacency() {
+            @Override
+            public int getDegree(int u) {
+                return vertices[u].adjacentVertices.size();
+            }
+
+            @Override
+            public int getNeighbor(int u, int index) {
+                return vertices[u].adjacentVertices.get(index).getId();
+            }
+        }, vertices.length);
+        clique = bound.findClique(validIds, CliqueBound.DEFAULT_START_COUNT);
+        lowerBound = clique.length;
+        listener.lowerBoundFound(lowerBound, System.nanoTime() - startTime);
+        return lowerBound;
+    }
+
+    private boolean isInClique(int u){
+        if (lowerBound == 0){
+            return false;  // no bound to lose
+        }
+        for (int id: clique){
+            if (id == u){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int getLowerBound() {
+        return lowerBound;
+    }
+
+    public long getUpdateTime() {
+        return updateTime;
+    }
+
+    public boolean hasAdjacencyMatrix() {
+        return adjacencyMatrix != null;
+    }
+
+    public Path getCheckpointFile() {
+        return checkpointFile;
+    }
+
+    public void setCheckpointFile(Path checkpointFile) {
+        // From now on, the stochastic local search saves its state every checkpointInterval (see SolverConfig).
+        this.checkpointFile = checkpointFile;
+    }
+
+    public SolverListener getListener() {
+        return listener;
+    }
+
+    public void setListener(SolverListener listener) {
+        this.listener = listener;
+    }
+
+    public SolverConfig getSolverConfig() {
+        return solverConfig;
+    }
+
+    public void setSolverConfig(SolverConfig solverConfig) {
+        this.solverConfig = solverConfig;
+    }
+
+    public long getIterationCount() {
+        return iterationCount;
+    }
+
+    public double getIterationsPerSecond() {
+        return searchTime == 0 ? 0 : iterationCount / (searchTime / 1e9);
+    }
+
     @Override
     public int getColor(int u) {
         return vertices[u].getColor();
     }
 
+    public boolean isProperlyColored() {
+        // Every valid vertex has a color below colorCount, and no neighbour with the same color. O(|E|).
+        initialiseValidVertices();
+        for (Vertex vertex: validVertices){
+            int color = vertex.getColor();
+            if (color < 0 || color >= colorCount){
+                return false;
+            }
+            for (Vertex adjVertex: vertex.adjacentVertices){
+                if (adjVertex.getColor() == color){
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public CSRGraph getCurrentGraph() {
+        /*
+         * The graph as it is now, in CSR form, for ColoringVerifier: with the vertices and edges added by addNode
+         * and addEdge, and without the ones removed by removeNode and removeEdge. Reduced vertices keep their
+         * edges (their own adjacentVertices still have them). Removed vertices are removed in the CSRGraph too.
+         */
+        int edgeCount = 0;
+        for (Vertex vertex: vertices){
+            if (vertex != null){
+                edgeCount += vertex.getDegree();
+            }
+        }
+        int[] edgeSources = new int[edgeCount];
+        int[] edgeTargets = new int[edgeCount];
+        int count = 0;
+        for (Vertex vertex: vertices){
+            if (vertex == null){
+                continue;
+            }
+            for (Vertex adjVertex: vertex.adjacentVertices){
+                if (vertices[adjVertex.getId()] == adjVertex){  // skip neighbours that were removed since
+                    edgeSources[count] = vertex.getId();
+                    edgeTargets[count++] = adjVertex.getId();
+                }
+            }
+        }
+        // Most edges are listed from both ends, CSRGraph drops the duplicates.
+        CSRGraph graph = new CSRGraph(vertices.length, count, edgeSources, edgeTargets);
+        for (int u = 0; u < vertices.length; u++){
+            if (vertices[u] == null){
+                graph.removeNode(u);
+            }
+        }
+        return graph;
+    }
+
+    public int[] getExpandedColoring() {
+        /*
+         * The colors of all vertices indexed by id, reduced vertices included: what ColoringVerifier checks.
+         * Removed vertices are -1. Against the graph as it was loaded that only works as long as nothing was
+         * removed or added, after addNode, addEdge, removeNode or removeEdge verify against getCurrentGraph.
+         */
+        int[] coloring = new int[vertices.length];
+        for (int u = 0; u < vertices.length; u++){
+            coloring[u] = vertices[u] == null ? -1 : vertices[u].getColor();
+        }
+        return coloring;
+    }
+
     // This is to test out of the SLS actually works.
     public void MaximumColorCountColoring(){
         for (int i = 0, validVerticesSize = validVertices.size(); i < validVerticesSize; i++) {
@@ -0,0 +1,152 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class GraphGenerator {
+    /*
+     * Generates test instances as edge lists, and writes them as DIMACS .col files.
+     * Every generator is deterministic for a given seed, so benchmarks can be repeated on the same graphs.
+     * Vertex ids start at 0 here, like everywhere in the code, and at 1 in the written files.
+     */
+    private final int vertexCount;
+    private int edgeCount = 0;
+    private int[] edgeSources = new int[16];
+    private int[] edgeTargets = new int[16];
+
+    private GraphGenerator(int vertexCount){
+        this.vertexCount = vertexCount;
+    }
+
+    private void addEdge(int u, int v){
+        if (edgeCount == edgeSources.length){
+            edgeSources = Arrays.copyOf(edgeSources, edgeCount * 2);
+            edgeTargets = Arrays.copyOf(edgeTargets, edgeCount * 2);
+        }
+        edgeSources[edgeCount] = u;
+        edgeTargets[edgeCount] = v;
+        edgeCount++;
+    }
+
+    public static GraphGenerator randomGraph(int vertexCount, double edgeProbability, long seed){
+        // G(n, p): every edge is present with probability edgeProbability.
+        GraphGenerator graph = new GraphGenerator(vertexCount);
+        Random random = new Random(seed);
+        for (int u = 0; u < vertexCount; u++){
+            for (int v = u + 1; v < vertexCount; v++){
+                if (random.nextDouble() < edgeProbability){
+                    graph.addEdge(u, v);
+                }
+            }
+        }
+        return graph;
+    }
+
+    public static GraphGenerator leightonGraph(int vertexCount, int colorCount, int edgeCount, long seed){
+        /*
+         * A graph in the style of Leighton's le450 instances: the vertices are split into colorCount classes,
+         * and cliques of 2 up to colorCount vertices, each from a different class, are added until there are
+         * edgeCount edges. One clique of colorCount vertices is always added, so the chromatic number is
+         * exactly colorCount.
+         */
+        GraphGenerator graph = new GraphGenerator(vertexCount);
+        Random random = new Random(seed);
+        int[][] classes = new int[colorCount][];
+        for (int c = 0; c < colorCount; c++){
+            classes[c] = new int[(vertexCount - c + colorCount - 1) / colorCount];
+        }
+        int[] permutation = permutation(vertexCount, random);
+        for (int i = 0; i < vertexCount; i++){
+            classes[i % colorCount][i / colorCount] = permutation[i];
+        }
+
+        // Only vertices of different classes can be connected.
+        long possibleEdgeCount = (long) vertexCount * (vertexCount - 1) / 2;
+        for (int[] vertexClass : classes){
+            possibleEdgeCount -= (long) vertexClass.length * (vertexClass.length - 1) / 2;
+        }
+        edgeCount = (int) Math.min(edgeCount, possibleEdgeCount);
+
+        Set<Long> edges = new HashSet<>();
+        int[] cliqueClasses = permutation(colorCount, random);
+        int cliqueSize = colorCount;
+        while (edges.size() < edgeCount){
+            int[] clique = new int[cliqueSize];
+            for (int i = 0; i < cliqueSize; i++){
+                int[] vertexClass = classes[cliqueClasses[i]];
+                clique[i] = vertexClass[random.nextInt(vertexClass.length)];
+            }
+            for (int i = 0; i < cliqueSize; i++){
+                for (int j = i + 1; j < cliqueSize && edges.size() < edgeCount; j++){
+                    int u = Math.min(clique[i], clique[j]);
+                    int v = Math.max(clique[i], clique[j]);
+                    if (edges.add((long) u * vertexCount + v)){
+                        graph.addEdge(u, v);
+                    }
+                }
+            }
+            cliqueClasses = permutation(colorCount, random);
+            cliqueSize = 2 + random.nextInt(colorCount - 1);
+        }
+        return graph;
+    }
+
+    public static GraphGenerator queenGraph(int size){
+        // The size x size queen graph: two squares are connected if a queen can move from one to the other.
+        GraphGenerator graph = new GraphGenerator(size * size);
+        for (int u = 0; u < size * size; u++){
+            int row = u / size;
+            int column = u % size;
+            for (int v = u + 1; v < size * size; v++){
+                int otherRow = v / size;
+                int otherColumn = v % size;
+                if (row == otherRow || column == otherColumn
+                        || Math.abs(row - otherRow) == Math.abs(column - otherColumn)){
+                    graph.addEdge(u, v);
+                }
+            }
+        }
+        return graph;
+    }
+
+    private static int[] permutation(int size, Random random){
+        int[] permutation = new int[size];
+        for (int i = 0; i < size; i++){
+            permutation[i] = i;
+        }
+        for (int i = size - 1; i > 0; i--){
+            int j = random.nextInt(i + 1);
+            int temp = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = temp;
+        }
+        return permutation;
+    }
+
+    public void writeDimacs(Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("p edge " + vertexCount + " " + edgeCount);
+            writer.newLine();
+            for (int i = 0; i < edgeCount; i++){
+                writer.write("e " + (edgeSources[i] + 1) + " " + (edgeTargets[i] + 1));
+                writer.newLine();
+            }
+        }
+    }
+
+    public CSRGraph toCSRGraph(){
+        return new CSRGraph(vertexCount, edgeCount, edgeSources, edgeTargets);
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+}
@@ -0,0 +1,286 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class HybridEvolutionarySearch {
+    /*
+     * The hybrid evolutionary algorithm of Galinier and Hao: a population of colorings with k colors that may
+     * have conflicts, where every generation crosses pairs of them with Greedy Partition Crossover (GPX) and
+     * improves the children with a short tabu search (TabuSearch.improve). A child replaces the worse of its
+     * parents, unless it has more conflicts than that parent. As soon as some coloring has no conflicts left,
+     * it is the new best coloring, and the search goes on with k - 1 colors.
+     * When a coloring with k colors is found, the population is carried over to k - 1: in every coloring the
+     * vertices of the last color class get a random other color, and the tabu search improves it again.
+     * Every coloring is a plain int[] indexed by vertex id, so a population costs |V| ints per coloring. The
+     * tabu searches, with their |V| * k tables, are only created once per thread that improves colorings: an
+     * idle one is reset to the next coloring (TabuSearch.reset). The children of a generation (one per thread,
+     * from disjoint pairs of parents) are created and improved in parallel on a ForkJoinPool.
+     * Every child gets a seed drawn from one Random in advance, so a run only depends on the seed of the
+     * SolverConfig and the parallelism, not on how the threads are scheduled.
+     */
+    private final CSRGraph graph;
+    private final int[] validIds;
+    private final int[] targets;
+    private final SolverConfig solverConfig;
+    private final int parallelism;
+    private final AtomicLong iterationCount = new AtomicLong();
+    private final ConcurrentLinkedDeque<TabuSearch> idleSearches = new ConcurrentLinkedDeque<>();
+
+    private List<Individual> population = null;  // of the last evolve, carried over to the next k
+
+    private int[] bestColoring;
+    private int colorCount;
+    private long elapsedTime = 0;  // in nanoseconds
+
+    private static class Individual {
+        int[] colors;
+        int conflicts;  // conflicting edges
+
+        Individual(int[] colors, int conflicts){
+            this.colors = colors;
+            this.conflicts = conflicts;
+        }
+    }
+
+    public HybridEvolutionarySearch(CSRGraph graph, int[] coloring, int colorCount, SolverConfig solverConfig,
+                                    int parallelism){
+        // coloring must be a proper coloring of the valid vertices of the graph with colorCount colors.
+        this.graph = graph;
+        this.validIds = graph.getValidVertexIds();
+        this.targets = graph.getTargets();
+        this.solverConfig = solverConfig;
+        this.parallelism = Math.max(1, parallelism);
+        this.bestColoring = coloring.clone();
+        this.colorCount = colorCount;
+    }
+
+    public void run(){
+        // Keeps removing colors until the time or iterations run out, or the target color count is reached.
+        long startTime = System.nanoTime();
+        long totalDeadline = SolverConfig.deadline(startTime, solverConfig.getTotalTimeLimit());
+        Random random = new Random(solverConfig.getSeed());
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            while (!solverConfig.isTargetReached(colorCount)){
+                long colorDeadline = SolverConfig.earliest(totalDeadline,
+                        SolverConfig.deadline(System.nanoTime(), solverConfig.getColorTimeLimit()));
+                int[] coloring = evolve(pool, colorCount - 1, colorDeadline, random);
+                if (coloring == null){
+                    break;
+                }
+                bestColoring = coloring;
+                colorCount--;
+            }
+        } finally {
+            pool.shutdownNow();
+            idleSearches.clear();
+            population = null;
+        }
+        elapsedTime = System.nanoTime() - startTime;
+    }
+
+    private int[] evolve(ForkJoinPool pool, int k, long deadline, Random random){
+        // Returns a proper coloring with k colors, or null if none was found in time.
+        // The first population: one coloring from the best one, the others random greedy ones. After that, the
+        // population of the previous k, with its last color class spread over the other colors.
+        List<Callable<Individual>> tasks = new ArrayList<>();
+        for (int i = 0; i < solverConfig.getPopulationSize(); i++){
+            int[] start = population != null ? population.get(i).colors : i == 0 ? bestColoring : null;
+            long seed = random.nextLong();
+            tasks.add(() -> {
+                Random taskRandom = new Random(seed);
+                int[] colors = start != null ? recolor(start, k, taskRandom) : randomGreedy(k, taskRandom);
+                return improve(colors, k, seed, deadline);
+            });
+        }
+        population = invokeAll(pool, tasks);
+
+        while (true){
+            for (Individual individual : population){
+                if (individual.conflicts == 0){
+                    return individual.colors;
+                }
+            }
+            if (System.nanoTime() - deadline > 0 || solverConfig.isIterationLimitReached(iterationCount.get())
+                    || Thread.currentThread().isInterrupted()){
+                return null;
+            }
+
+            tasks.clear();
+            // Disjoint pairs of parents (a partial shuffle of the population), so no two children of this
+            // generation can replace the same coloring.
+            int[] order = new int[population.size()];
+            for (int i = 0; i < order.length; i++){
+                order[i] = i;
+            }
+            int pairCount = Math.max(1, Math.min(parallelism, order.length / 2));
+            int[][] parents = new int[pairCount][2];
+            for (int i = 0; i < pairCount; i++){
+                for (int j = 0; j < 2; j++){
+                    int index = 2 * i + j;
+                    int swap = index + random.nextInt(order.length - index);
+                    int parent = order[swap];
+                    order[swap] = order[index];
+                    order[index] = parent;
+                    parents[i][j] = parent;
+                }
+                int[] colors1 = population.get(parents[i][0]).colors;
+                int[] colors2 = population.get(parents[i][1]).colors;
+                long seed = random.nextLong();
+                tasks.add(() -> improve(crossover(colors1, colors2, k, new Random(seed)), k, seed, deadline));
+            }
+            List<Individual> children = invokeAll(pool, tasks);
+            for (int i = 0; i < children.size(); i++){
+                int parent1 = parents[i][0];
+                int parent2 = parents[i][1];
+                int worse = population.get(parent1).conflicts >= population.get(parent2).conflicts ? parent1 : parent2;
+                // A child that is worse than both of its parents is dropped.
+                if (children.get(i).conflicts <= population.get(worse).conflicts){
+                    population.set(worse, children.get(i));
+                }
+            }
+        }
+    }
+
+    private List<Individual> invokeAll(ForkJoinPool pool, List<Callable<Individual>> tasks){
+        List<Individual> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<Individual> future : pool.invokeAll(tasks)){
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("The evolutionary search was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Improving a coloring failed", e.getCause());
+        }
+        return results;
+    }
+
+    private Individual improve(int[] colors, int k, long seed, long deadline){
+        // A short tabu search on the coloring, the improved colors are written back into it. The search is an
+        // idle one reset to this coloring, only a thread that finds none creates one. k only goes down, so a
+        // search created for an earlier k has room for this one.
+        TabuSearch search = idleSearches.poll();
+        if (search == null){
+            search = new TabuSearch(graph, colors, k, solverConfig, seed);
+        } else {
+            search.reset(colors, k, seed);
+        }
+        try {
+            int conflicts = search.improve(solverConfig.getOffspringIterations(), deadline);
+            search.copyColoringTo(colors);
+            iterationCount.addAndGet(search.getIterationCount());
+            return new Individual(colors, conflicts);
+        } finally {
+            idleSearches.push(search);
+        }
+    }
+
+    private int[] crossover(int[] parent1, int[] parent2, int k, Random random){
+        /*
+         * GPX: the parents take turns giving their largest color class (counting only vertices that have no
+         * color in the child yet) to the child as its next color. After k classes, the vertices left get a
+         * random color.
+         */
+        int[] child = new int[parent1.length];
+        Arrays.fill(child, -1);
+        int[] sizes1 = new int[k];
+        int[] sizes2 = new int[k];
+        for (int u : validIds){
+            sizes1[parent1[u]]++;
+            sizes2[parent2[u]]++;
+        }
+        for (int color = 0; color < k; color++){
+            int[] parent = color % 2 == 0 ? parent1 : parent2;
+            int[] sizes = color % 2 == 0 ? sizes1 : sizes2;
+            int largest = 0;
+            for (int c = 1; c < k; c++){
+                if (sizes[c] > sizes[largest]){
+                    largest = c;
+                }
+            }
+            if (sizes[largest] == 0){
+                break;  // every vertex has a color
+            }
+            for (int u : validIds){
+                if (child[u] == -1 && parent[u] == largest){
+                    child[u] = color;
+                    sizes1[parent1[u]]--;
+                    sizes2[parent2[u]]--;
+                }
+            }
+        }
+        for (int u : validIds){
+            if (child[u] == -1){
+                child[u] = random.nextInt(k);
+            }
+        }
+        return child;
+    }
+
+    private int[] recolor(int[] coloring, int k, Random random){
+        // A copy of coloring where the vertices with a color that is too large get a random one.
+        int[] colors = coloring.clone();
+        for (int u : validIds){
+            if (colors[u] >= k){
+                colors[u] = random.nextInt(k);
+            }
+        }
+        return colors;
+    }
+
+    private int[] randomGreedy(int k, Random random){
+        // Greedy coloring in a random order: the smallest color no neighbour has, or a random one if there is none.
+        int[] colors = new int[graph.getVertexCount()];
+        Arrays.fill(colors, -1);
+        int[] order = validIds.clone();
+        for (int i = order.length - 1; i > 0; i--){
+            int j = random.nextInt(i + 1);
+            int temp = order[i];
+            order[i] = order[j];
+            order[j] = temp;
+        }
+        boolean[] used = new boolean[k];
+        for (int u : order){
+            Arrays.fill(used, false);
+            for (int i = graph.getNeighborStart(u); i < graph.getNeighborEnd(u); i++){
+                int color = colors[targets[i]];
+                if (color != -1){
+                    used[color] = true;
+                }
+            }
+            int color = 0;
+            while (color < k && used[color]){
+                color++;
+            }
+            colors[u] = color < k ? color : random.nextInt(k);
+        }
+        return colors;
+    }
+
+    public int getColorCount(){
+        return colorCount;
+    }
+
+    public void copyColoringTo(int[] coloring){
+        for (int u : validIds){
+            coloring[u] = bestColoring[u];
+        }
+    }
+
+    public long getIterationCount(){
+        return iterationCount.get();
+    }
+
+    public long getElapsedTime(){
+        return elapsedTime;
+    }
+}
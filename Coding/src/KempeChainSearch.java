@@ -0,0 +1,178 @@
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class KempeChainSearch implements ColoringSearch {
+    /*
+     * Kempe-chain interchange local search (after the Kempe chain annealing of Johnson, Aragon, McGeoch and
+     * Schevon). The coloring stays proper the whole time: a move picks a vertex v and a color c, and swaps the
+     * two colors of the Kempe chain of v, the connected part of the graph colored with color(v) or c that
+     * contains v. Swapping both colors of a whole chain can never create a conflict.
+     * The search maximises the sum of the squared color class sizes, which grows the large classes and
+     * empties the small ones; as soon as a class is empty, the coloring needs one color less. Moves that make
+     * the sum smaller are accepted with probability exp(delta / temperature) (simulated annealing), the
+     * temperature cools down every validCount moves and starts over once it gets too low.
+     */
+    private static final double COOLING_FACTOR = 0.95;
+    private static final double MINIMAL_TEMPERATURE = 0.05;
+
+    private final int[] targets;
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] validIds;
+    private final int[] colors;
+    private final int[] classSize;
+    private final int[] chain;  // the vertices of the last Kempe chain, in the order they were found
+    private final int[] visited;  // visited[u] == visitStamp if u is in the last Kempe chain
+    private final Random random;
+    private final SolverConfig solverConfig;
+    private final double initialTemperature;
+
+    private int colorCount;
+    private int visitStamp = 0;
+    private double temperature;
+    private long iterationCount = 0;
+
+    public KempeChainSearch(CSRGraph graph, int[] coloring, int colorCount, SolverConfig solverConfig, long seed){
+        // coloring must be a proper coloring of the valid vertices with colorCount colors. It is copied.
+        int vertexCount = graph.getVertexCount();
+        targets = graph.getTargets();
+        starts = new int[vertexCount];
+        ends = new int[vertexCount];
+        validIds = graph.getValidVertexIds();
+        for (int u : validIds){
+            starts[u] = graph.getNeighborStart(u);
+            ends[u] = graph.getNeighborEnd(u);
+        }
+        colors = coloring.clone();
+        this.colorCount = colorCount;
+        classSize = new int[colorCount];
+        for (int u : validIds){
+            classSize[colors[u]]++;
+        }
+        chain = new int[vertexCount];
+        visited = new int[vertexCount];
+        random = new Random(seed);
+        this.solverConfig = solverConfig;
+        // Moving one vertex from a class to another changes the objective by about twice the size difference.
+        initialTemperature = Math.max(1.0, 2.0 * validIds.length / colorCount);
+        temperature = initialTemperature;
+    }
+
+    @Override
+    public boolean search(int targetColorCount, long deadline, AtomicInteger sharedColorCount){
+        /*
+         * Makes Kempe chain moves until the coloring uses only targetColorCount colors. Every emptied class
+         * gets the vertices of the highest color, so the used colors are always 0 .. colorCount - 1.
+         * The limits are checked every checkInterval iterations.
+         */
+        if (validIds.length == 0){
+            return true;
+        }
+        while (colorCount > targetColorCount){
+            step();
+            if (iterationCount % solverConfig.getCheckInterval() == 0){
+                if (System.nanoTime() - deadline > 0 || solverConfig.isIterationLimitReached(iterationCount)){
+                    return false;
+                }
+                if (sharedColorCount != null && sharedColorCount.get() <= targetColorCount){
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void step(){
+        int vertex = validIds[random.nextInt(validIds.length)];
+        int oldColor = colors[vertex];
+        int otherColor = random.nextInt(colorCount - 1);
+        if (otherColor >= oldColor){
+            otherColor++;  // any color but the color of the vertex itself
+        }
+
+        int chainSize = findChain(vertex, oldColor, otherColor);
+        int oldColorCount = 0;  // vertices of the chain with oldColor, the rest has otherColor
+        for (int i = 0; i < chainSize; i++){
+            if (colors[chain[i]] == oldColor){
+                oldColorCount++;
+            }
+        }
+        int otherColorCount = chainSize - oldColorCount;
+        int newOldSize = classSize[oldColor] - oldColorCount + otherColorCount;
+        int newOtherSize = classSize[otherColor] - otherColorCount + oldColorCount;
+        long delta = (long) newOldSize * newOldSize + (long) newOtherSize * newOtherSize
+                - (long) classSize[oldColor] * classSize[oldColor] - (long) classSize[otherColor] * classSize[otherColor];
+
+        if (delta >= 0 || random.nextDouble() < Math.exp(delta / temperature)){
+            for (int i = 0; i < chainSize; i++){
+                int u = chain[i];
+                colors[u] = colors[u] == oldColor ? otherColor : oldColor;
+            }
+            classSize[oldColor] = newOldSize;
+            classSize[otherColor] = newOtherSize;
+            if (newOldSize == 0){
+                removeColor(oldColor);
+            } else if (newOtherSize == 0){
+                removeColor(otherColor);
+            }
+        }
+
+        iterationCount++;
+        if (iterationCount % validIds.length == 0){
+            temperature *= COOLING_FACTOR;
+            if (temperature < MINIMAL_TEMPERATURE){
+                temperature = initialTemperature;
+            }
+        }
+    }
+
+    private int findChain(int start, int color1, int color2){
+        // Breadth first search over the vertices colored color1 or color2, the chain ends up in chain[0 .. size).
+        visitStamp++;
+        chain[0] = start;
+        visited[start] = visitStamp;
+        int size = 1;
+        for (int head = 0; head < size; head++){
+            int u = chain[head];
+            for (int i = starts[u]; i < ends[u]; i++){
+                int neighbor = targets[i];
+                int color = colors[neighbor];
+                if ((color == color1 || color == color2) && visited[neighbor] != visitStamp){
+                    visited[neighbor] = visitStamp;
+                    chain[size++] = neighbor;
+                }
+            }
+        }
+        return size;
+    }
+
+    private void removeColor(int emptyColor){
+        // The highest color takes the place of the empty one.
+        colorCount--;
+        if (emptyColor != colorCount){
+            for (int u : validIds){
+                if (colors[u] == colorCount){
+                    colors[u] = emptyColor;
+                }
+            }
+            classSize[emptyColor] = classSize[colorCount];
+        }
+        classSize[colorCount] = 0;
+    }
+
+    @Override
+    public void copyColoringTo(int[] coloring){
+        for (int vertex : validIds){
+            coloring[vertex] = colors[vertex];
+        }
+    }
+
+    public int getColorCount(){
+        return colorCount;
+    }
+
+    @Override
+    public long getIterationCount(){
+        return iterationCount;
+    }
+}
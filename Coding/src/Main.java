@@ -1,7 +1,12 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+
 public class Main {
     public static void main(String[] args) {
         String path = "D:\\UNIDOCS\\1Sem1\\Gegevensstructuren&Algoritmen\\GCPProject\\Coding\\src\\DIMACSGraphs\\";
-        Graph graph1 = new Graph(path + "le450_5b.col");
+        SolverMetrics metrics = new SolverMetrics();
+        Graph graph1 = new Graph(path + "le450_5b.col", metrics);
+        System.out.printf("Loaded in %.1f ms (%.1f MB/s)%n", graph1.getLoadTime() / 1e6, graph1.getLoadThroughput());
 
         graph1.applyReduction();
 
@@ -9,6 +14,27 @@ public class Main {
         System.out.println(graph1.getColorCount());
 
         graph1.applyStochasticLocalSearchAlgorithm();
-        System.out.println(graph1.getColorCount());
+        System.out.println(graph1.getColorCount() + " (lower bound " + graph1.getLowerBound() + ")");
+
+        // Check the coloring against the graph as it was loaded, and save it as a certificate.
+        try {
+            int[] coloring = graph1.getExpandedColoring();
+            ColoringVerifier.Result result = ColoringVerifier.verify(BinaryGraphFormat.loadCached(path + "le450_5b.col"),
+                    coloring, Runtime.getRuntime().availableProcessors());
+            System.out.println(result);
+            ColoringVerifier.writeCertificate(Paths.get("le450_5b.sol"), coloring, result);
+        } catch (IOException e) {
+            System.out.println("Could not verify the coloring");
+            e.printStackTrace();
+        }
+
+        // Everything the solver did, see SolverMetrics.
+        try {
+            metrics.writeJson(Paths.get("le450_5b.metrics.json"));
+            metrics.writeCsv(Paths.get("le450_5b.conflicts.csv"));
+        } catch (IOException e) {
+            System.out.println("Could not write the metrics");
+            e.printStackTrace();
+        }
     }
 }
@@ -0,0 +1,158 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class MultiStartTabuSearch {
+    /*
+     * Runs several independent TabuSearch workers on the same CSRGraph, one per thread, each with its own
+     * coloring state and random seed. The workers share the best color count found so far: as soon as one of
+     * them finds a proper coloring with k colors, the others abort their search for k and move on to k - 1,
+     * starting from that coloring. The search stops when no worker improved the coloring within the color time
+     * limit of the SolverConfig, when the total time limit runs out, or when the target color count is reached.
+     * The iteration limit applies to every worker separately.
+     */
+    private final CSRGraph graph;
+    private final int threadCount;
+    private final long seed;
+    private final SolverConfig solverConfig;
+    private final AtomicInteger bestColorCount;
+    private final AtomicLong lastImprovementTime = new AtomicLong();  // System.nanoTime() of the last improvement
+    private final AtomicLong iterationCount = new AtomicLong();
+    private int[] bestColoring;  // guarded by this
+    private long elapsedTime = 0;  // in nanoseconds
+
+    public MultiStartTabuSearch(CSRGraph graph, int[] coloring, int colorCount, SolverConfig solverConfig,
+                                int threadCount, long seed){
+        // coloring must be a proper coloring of the valid vertices of the graph with colorCount colors.
+        this.graph = graph;
+        this.solverConfig = solverConfig;
+        this.threadCount = threadCount;
+        this.seed = seed;
+        this.bestColorCount = new AtomicInteger(colorCount);
+        this.bestColoring = coloring.clone();
+    }
+
+    public void run(){
+        // Blocks until every worker has stopped.
+        long startTime = System.nanoTime();
+        lastImprovementTime.set(startTime);
+        long totalDeadline = SolverConfig.deadline(startTime, solverConfig.getTotalTimeLimit());
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++){
+                long workerSeed = seed + i;
+                futures.add(executor.submit(() -> work(workerSeed, totalDeadline)));
+            }
+            for (Future<?> future : futures){
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException("A tabu search worker failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        elapsedTime = System.nanoTime() - startTime;
+    }
+
+    private void work(long workerSeed, long totalDeadline){
+        int[] coloring;
+        int colorCount;
+        synchronized (this) {
+            coloring = bestColoring.clone();
+            colorCount = bestColorCount.get();
+        }
+        TabuSearch search = new TabuSearch(graph, coloring, colorCount, solverConfig, workerSeed);
+        long searchedIterations = 0;
+
+        while (!Thread.currentThread().isInterrupted()){
+            if (solverConfig.isTargetReached(bestColorCount.get())){
+                break;
+            }
+            int target = bestColorCount.get() - 1;
+            if (search.getColorCount() > target + 1 || search.getInfeasibleEdgeCount() != 0){
+                // Another worker got ahead of us, continue from its coloring.
+                synchronized (this) {
+                    target = bestColorCount.get() - 1;
+                    search.loadColoring(bestColoring, target + 1);
+                }
+            }
+
+            if (search.search(target, colorDeadline(totalDeadline), bestColorCount)){
+                offer(search, target);
+            } else if (System.nanoTime() - colorDeadline(totalDeadline) > 0
+                    || solverConfig.isIterationLimitReached(search.getIterationCount())){
+                break;  // out of time or iterations, and nobody improved in the meantime
+            }
+            iterationCount.addAndGet(search.getIterationCount() - searchedIterations);
+            searchedIterations = search.getIterationCount();
+        }
+        iterationCount.addAndGet(search.getIterationCount() - searchedIterations);
+    }
+
+    private long colorDeadline(long totalDeadline){
+        return SolverConfig.earliest(totalDeadline,
+                SolverConfig.deadline(lastImprovementTime.get(), solverConfig.getColorTimeLimit()));
+    }
+
+    private synchronized void offer(TabuSearch search, int colorCount){
+        if (colorCount < bestColorCount.get()){
+            search.copyColoringTo(bestColoring);
+            bestColorCount.set(colorCount);
+            lastImprovementTime.set(System.nanoTime());
+        }
+    }
+
+    public int getColorCount(){
+        return bestColorCount.get();
+    }
+
+    public synchronized void copyColoringTo(int[] coloring){
+        for (int u : graph.getValidVertexIds()){
+            coloring[u] = bestColoring[u];
+        }
+    }
+
+    public long getIterationCount(){
+        return iterationCount.get();
+    }
+
+    public long getElapsedTime(){
+        // In nanoseconds.
+        return elapsedTime;
+    }
+
+    public double getIterationsPerSecond(){
+        return elapsedTime == 0 ? 0 : iterationCount.get() / (elapsedTime / 1e9);
+    }
+
+    public static void reportSpeedup(CSRGraph graph, SolverConfig solverConfig, int threadCount, long seed){
+        /*
+         * Runs the search once with a single worker and once with threadCount workers, starting from the current
+         * coloring of the graph, and prints the color counts, the tabu iterations per second and the speedup.
+         * The graph itself is not changed.
+         */
+        int[] coloring = graph.getColoring();
+        MultiStartTabuSearch single = new MultiStartTabuSearch(graph, coloring, graph.getColorCount(),
+                solverConfig, 1, seed);
+        single.run();
+        MultiStartTabuSearch parallel = new MultiStartTabuSearch(graph, coloring, graph.getColorCount(),
+                solverConfig, threadCount, seed);
+        parallel.run();
+
+        System.out.printf("1 thread: %d colors, %.0f iterations/s%n",
+                single.getColorCount(), single.getIterationsPerSecond());
+        System.out.printf("%d threads: %d colors, %.0f iterations/s%n",
+                threadCount, parallel.getColorCount(), parallel.getIterationsPerSecond());
+        System.out.printf("Speedup: %.2fx%n", single.getIterationsPerSecond() == 0 ? 0
+                : parallel.getIterationsPerSecond() / single.getIterationsPerSecond());
+    }
+}
@@ -0,0 +1,46 @@
+interface NeighborColorScanner {
+    /*
+     * Counts the colors of the neighbours of a vertex in a CSRGraph: the neighbours are targets[from..to) and
+     * their colors are colors[neighbour]. This is the inner loop of building the conflict table of TabuSearch,
+     * and of checking a coloring (CSRGraph.isProperlyColored, ColoringVerifier).
+     * DEFAULT is VectorNeighborColorScanner when the jdk.incubator.vector module is there at runtime
+     * (java --add-modules jdk.incubator.vector ...) and the machine has 256 bit vectors, and the plain loops of
+     * SCALAR otherwise, or when the system property gcp.scalar is set to true.
+     * VectorNeighborColorScanner is in its own source root (Coding/vector), src compiles without it. Maven
+     * compiles it with javac --add-modules jdk.incubator.vector (see pom.xml), by hand that is
+     *     javac -d out src/*.java
+     *     javac --add-modules jdk.incubator.vector -cp out -d out vector/*.java
+     * Without it on the classpath, SCALAR is used.
+     */
+    NeighborColorScanner SCALAR = new ScalarNeighborColorScanner();
+    NeighborColorScanner DEFAULT = select();
+
+    /**
+     *  Returns the number of neighbours targets[from..to) with the given color.
+     */
+    int countColor(int[] targets, int from, int to, int[] colors, int color);
+
+    /**
+     *  Adds one to counts[offset + c] for every neighbour in targets[from..to) with color c, for colors from 0 up
+     *  to colorCount. Uncolored neighbours (-1) are skipped.
+     */
+    void addColorCounts(int[] targets, int from, int to, int[] colors, int[] counts, int offset, int colorCount);
+
+    /**
+     *  Returns a short name for the benchmarks, "scalar" or "vector".
+     */
+    String getName();
+
+    static NeighborColorScanner select(){
+        if (Boolean.getBoolean("gcp.scalar") || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()){
+            return SCALAR;
+        }
+        // Loaded by name, so nothing else refers to the Vector API, and a missing module is no problem. Its
+        // constructor throws when the hardware can't run it, which ends up here as a ReflectiveOperationException.
+        try {
+            return (NeighborColorScanner) Class.forName("VectorNeighborColorScanner").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return SCALAR;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PartialColSearch implements ColoringSearch {
+    /*
+     * PartialCol (Bloechliger and Zufferey): a tabu search over partial proper colorings instead of over
+     * complete colorings with conflicts. No two neighbours ever have the same color, but some vertices may be
+     * uncolored, and the search tries to make that set empty.
+     * A move gives an uncolored vertex u a color c, and uncolors every neighbour of u that had color c.
+     * Those neighbours may not get color c back for a while (same tenure as TabuSearch, with the amount of
+     * uncolored vertices in place of the amount of conflicting ones).
+     * adjacentColorCount[u * stride + c] is the amount of colored neighbours of u with color c, so the cost of a
+     * move (the change in uncolored vertices) is adjacentColorCount[u * stride + c] - 1.
+     */
+    private final int[] targets;
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] validIds;
+    private final int stride;  // the tables are sized for the initial amount of colors
+    private final int[] colors;  // -1 for uncolored vertices
+    private final int[] adjacentColorCount;
+    private final int[] tabooTimer;
+    private final int[] uncoloredVertices;  // the first uncoloredCount entries are the uncolored vertices
+    private final int[] uncoloredPosition;  // index in uncoloredVertices, -1 if the vertex is colored
+    private final Random random;
+    private final SolverConfig solverConfig;
+
+    private int uncoloredCount = 0;
+    private int tabooClock = 0;
+    private long iterationCount = 0;
+
+    public PartialColSearch(CSRGraph graph, int[] coloring, int colorCount, SolverConfig solverConfig, long seed){
+        // coloring must be a proper coloring of the valid vertices with colorCount colors. It is copied.
+        int vertexCount = graph.getVertexCount();
+        targets = graph.getTargets();
+        starts = new int[vertexCount];
+        ends = new int[vertexCount];
+        validIds = graph.getValidVertexIds();
+        for (int u : validIds){
+            starts[u] = graph.getNeighborStart(u);
+            ends[u] = graph.getNeighborEnd(u);
+        }
+        stride = colorCount;
+        colors = coloring.clone();
+        adjacentColorCount = new int[vertexCount * stride];
+        tabooTimer = new int[vertexCount * stride];
+        uncoloredVertices = new int[vertexCount];
+        uncoloredPosition = new int[vertexCount];
+        Arrays.fill(uncoloredPosition, -1);
+        random = new Random(seed);
+        this.solverConfig = solverConfig;
+        for (int u : validIds){
+            NeighborColorScanner.DEFAULT.addColorCounts(targets, starts[u], ends[u], colors, adjacentColorCount,
+                    u * stride, stride);
+        }
+    }
+
+    @Override
+    public boolean search(int targetColorCount, long deadline, AtomicInteger sharedColorCount){
+        /*
+         * Every vertex with a color that is too large is uncolored, then moves are made until every vertex is
+         * colored again. The limits are checked every checkInterval iterations.
+         */
+        for (int vertex : validIds){
+            if (colors[vertex] >= targetColorCount){
+                uncolor(vertex);
+            }
+        }
+
+        while (uncoloredCount != 0){
+            step(targetColorCount);
+            if (iterationCount % solverConfig.getCheckInterval() == 0){
+                if (System.nanoTime() - deadline > 0 || solverConfig.isIterationLimitReached(iterationCount)){
+                    return false;
+                }
+                if (sharedColorCount != null && sharedColorCount.get() <= targetColorCount){
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void step(int colorCount){
+        int bestVertex = -1;
+        int bestColor = -1;
+        int bestCost = Integer.MAX_VALUE;
+        int bestTabooVertex = -1;  // used when every move is taboo
+        int bestTabooColor = -1;
+        int bestTabooCost = Integer.MAX_VALUE;
+        int ties = 0;
+        for (int j = 0; j < uncoloredCount; j++){
+            int vertex = uncoloredVertices[j];
+            int row = vertex * stride;
+            for (int color = 0; color < colorCount; color++){
+                int cost = adjacentColorCount[row + color];  // the amount of neighbours that would be uncolored
+                // A taboo move is only allowed if it colors the last uncolored vertex.
+                if (tabooTimer[row + color] <= tabooClock || (uncoloredCount == 1 && cost == 0)){
+                    if (cost < bestCost){
+                        bestCost = cost;
+                        bestVertex = vertex;
+                        bestColor = color;
+                        ties = 1;
+                    } else if (cost == bestCost && random.nextInt(++ties) == 0){
+                        // Ties are broken uniformly, otherwise the search keeps coloring the same vertices.
+                        bestVertex = vertex;
+                        bestColor = color;
+                    }
+                } else if (cost < bestTabooCost){
+                    bestTabooCost = cost;
+                    bestTabooVertex = vertex;
+                    bestTabooColor = color;
+                }
+            }
+        }
+        if (bestVertex == -1){
+            bestVertex = bestTabooVertex;
+            bestColor = bestTabooColor;
+        }
+
+        if (bestVertex != -1){
+            int tenure = solverConfig.tabooTenure(random, uncoloredCount);
+            for (int i = starts[bestVertex]; i < ends[bestVertex]; i++){
+                int neighbor = targets[i];
+                if (colors[neighbor] == bestColor){
+                    uncolor(neighbor);
+                    // Giving the neighbour its color back is taboo for a while.
+                    tabooTimer[neighbor * stride + bestColor] = tabooClock + tenure;
+                }
+            }
+            color(bestVertex, bestColor);
+        }
+        tabooClock++;
+        iterationCount++;
+    }
+
+    private void uncolor(int u){
+        int oldColor = colors[u];
+        for (int i = starts[u]; i < ends[u]; i++){
+            adjacentColorCount[targets[i] * stride + oldColor]--;
+        }
+        colors[u] = -1;
+        uncoloredVertices[uncoloredCount] = u;
+        uncoloredPosition[u] = uncoloredCount;
+        uncoloredCount++;
+    }
+
+    private void color(int u, int color){
+        for (int i = starts[u]; i < ends[u]; i++){
+            adjacentColorCount[targets[i] * stride + color]++;
+        }
+        colors[u] = color;
+        int position = uncoloredPosition[u];
+        uncoloredCount--;
+        int last = uncoloredVertices[uncoloredCount];
+        uncoloredVertices[position] = last;
+        uncoloredPosition[last] = position;
+        uncoloredPosition[u] = -1;
+    }
+
+    @Override
+    public void copyColoringTo(int[] coloring){
+        // Only gives a proper coloring after a successful search, otherwise some vertices are -1.
+        for (int vertex : validIds){
+            coloring[vertex] = colors[vertex];
+        }
+    }
+
+    public int getUncoloredCount(){
+        return uncoloredCount;
+    }
+
+    @Override
+    public long getIterationCount(){
+        return iterationCount;
+    }
+}
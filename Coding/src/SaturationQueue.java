@@ -0,0 +1,113 @@
+import java.util.Arrays;
+
+public class SaturationQueue {
+    /*
+     * Priority queue for DSatur: an indexed binary max-heap of vertex ids, ordered by saturation, then degree,
+     * then the smallest id. The position of every id in the heap is remembered, so the saturation of a vertex
+     * can be raised in O(log n) without searching for it. Nothing is allocated after construction.
+     */
+    private final int[] heap;
+    private final int[] position;  // position[id] = index of id in heap, -1 if it isn't in the queue
+    private final int[] saturation;
+    private final int[] degree;
+    private int size = 0;
+
+    public SaturationQueue(int capacity){
+        // Ids must lie between 0 and capacity - 1.
+        heap = new int[capacity];
+        position = new int[capacity];
+        Arrays.fill(position, -1);
+        saturation = new int[capacity];
+        degree = new int[capacity];
+    }
+
+    public void add(int id, int degree){
+        this.degree[id] = degree;
+        saturation[id] = 0;
+        heap[size] = id;
+        position[id] = size;
+        size++;
+        siftUp(size - 1);
+    }
+
+    public boolean isEmpty(){
+        return size == 0;
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public boolean contains(int id){
+        return position[id] != -1;
+    }
+
+    public int getSaturation(int id){
+        return saturation[id];
+    }
+
+    public int poll(){
+        // Removes and returns the vertex with the largest saturation (ties: largest degree, then smallest id).
+        int top = heap[0];
+        size--;
+        position[top] = -1;
+        if (size > 0){
+            heap[0] = heap[size];
+            position[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    public void increaseSaturation(int id){
+        saturation[id]++;
+        siftUp(position[id]);
+    }
+
+    private boolean before(int id1, int id2){
+        // Returns whether id1 has to be colored before id2.
+        if (saturation[id1] != saturation[id2]){
+            return saturation[id1] > saturation[id2];
+        }
+        if (degree[id1] != degree[id2]){
+            return degree[id1] > degree[id2];
+        }
+        return id1 < id2;
+    }
+
+    private void siftUp(int index){
+        int id = heap[index];
+        while (index > 0){
+            int parent = (index - 1) / 2;
+            if (!before(id, heap[parent])){
+                break;
+            }
+            heap[index] = heap[parent];
+            position[heap[index]] = index;
+            index = parent;
+        }
+        heap[index] = id;
+        position[id] = index;
+    }
+
+    private void siftDown(int index){
+        int id = heap[index];
+        while (true){
+            int child = 2 * index + 1;
+            if (child >= size){
+                break;
+            }
+            if (child + 1 < size && before(heap[child + 1], heap[child])){
+                child++;
+            }
+            if (!before(heap[child], id)){
+                break;
+            }
+            heap[index] = heap[child];
+            position[heap[index]] = index;
+            index = child;
+        }
+        heap[index] = id;
+        position[id] = index;
+    }
+}
@@ -0,0 +1,31 @@
+class ScalarNeighborColorScanner implements NeighborColorScanner {
+    /*
+     * The plain loops, one neighbour at a time. Always available, see NeighborColorScanner.
+     */
+
+    @Override
+    public int countColor(int[] targets, int from, int to, int[] colors, int color) {
+        int count = 0;
+        for (int i = from; i < to; i++){
+            if (colors[targets[i]] == color){
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void addColorCounts(int[] targets, int from, int to, int[] colors, int[] counts, int offset, int colorCount) {
+        for (int i = from; i < to; i++){
+            int color = colors[targets[i]];
+            if (color >= 0){
+                counts[offset + color]++;
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,41 @@
+import java.util.Random;
+
+public class SearchRandom extends Random {
+    /*
+     * A java.util.Random whose state can be read and put back, for the checkpoints of the stochastic local
+     * search (see Checkpoint). It is the same 48-bit linear congruential generator as java.util.Random, so a
+     * seed gives the same numbers as new Random(seed) does. Only meant for one thread, and nextGaussian keeps
+     * a second value around that isn't part of the state: the search doesn't use it.
+     */
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private static final long serialVersionUID = 1L;
+
+    private long state;  // set by setSeed, which the constructor of Random calls
+
+    public SearchRandom(long seed){
+        super(seed);
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        super.setSeed(seed);
+        state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    @Override
+    protected int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    public long getState() {
+        return state;
+    }
+
+    public void setState(long state) {
+        this.state = state & MASK;
+    }
+}
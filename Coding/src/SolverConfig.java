@@ -0,0 +1,190 @@
+import java.util.Random;
+
+public class SolverConfig {
+    /*
+     * Settings for the stochastic local search, shared by Graph, CSRGraph and the TabuSearch based solvers.
+     * Time limits are in milliseconds, a limit of 0 means there is no limit.
+     * The clock is only read every checkInterval iterations, so limits can be overrun by that many iterations.
+     * The seed is fixed by default, so two runs with the same settings do the same search. useRandomSeed picks
+     * a different one for a run that shouldn't repeat the last one.
+     */
+    public static final long DEFAULT_SEED = 42;
+
+    private long totalTimeLimit = 0;  // for the whole search
+    private long colorTimeLimit = 60000;  // for finding a coloring with one color less
+    private long maxIterations = 0;  // tabu iterations for the whole search
+    private int targetColorCount = 0;  // stop as soon as a coloring with this many colors has been found
+    private int tabooRandomRange = 10;  // A in tt = random(A) + delta * |conflicting vertices|
+    private double tabooConflictFactor = 0.6;  // delta
+    private int checkInterval = 1024;
+    private int populationSize = 10;  // colorings in the population of HybridEvolutionarySearch
+    private long offspringIterations = 10000;  // tabu iterations to improve every offspring with
+    private long checkpointInterval = 60000;  // between two checkpoints of the search, if it has a checkpoint file
+    private int repairIterations = 1000;  // tabu iterations to repair the coloring after adding an edge to a Graph
+    private long repairTimeLimit = 100;  // for the search that removes the extra color a repair had to add
+    private boolean cliqueBoundEnabled = true;  // stop the searches at the clique lower bound (see CliqueBound)
+    private long seed = DEFAULT_SEED;  // for the Random of a search
+
+    public SolverConfig(){
+    }
+
+    public SolverConfig(SolverConfig other){
+        // A copy, for searches that need their own target or seed.
+        this.totalTimeLimit = other.totalTimeLimit;
+        this.colorTimeLimit = other.colorTimeLimit;
+        this.maxIterations = other.maxIterations;
+        this.targetColorCount = other.targetColorCount;
+        this.tabooRandomRange = other.tabooRandomRange;
+        this.tabooConflictFactor = other.tabooConflictFactor;
+        this.checkInterval = other.checkInterval;
+        this.populationSize = other.populationSize;
+        this.offspringIterations = other.offspringIterations;
+        this.checkpointInterval = other.checkpointInterval;
+        this.repairIterations = other.repairIterations;
+        this.repairTimeLimit = other.repairTimeLimit;
+        this.cliqueBoundEnabled = other.cliqueBoundEnabled;
+        this.seed = other.seed;
+    }
+
+    public long getTotalTimeLimit() {
+        return totalTimeLimit;
+    }
+
+    public void setTotalTimeLimit(long totalTimeLimit) {
+        this.totalTimeLimit = totalTimeLimit;
+    }
+
+    public long getColorTimeLimit() {
+        return colorTimeLimit;
+    }
+
+    public void setColorTimeLimit(long colorTimeLimit) {
+        this.colorTimeLimit = colorTimeLimit;
+    }
+
+    public long getMaxIterations() {
+        return maxIterations;
+    }
+
+    public void setMaxIterations(long maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    public int getTargetColorCount() {
+        return targetColorCount;
+    }
+
+    public void setTargetColorCount(int targetColorCount) {
+        this.targetColorCount = targetColorCount;
+    }
+
+    public int getTabooRandomRange() {
+        return tabooRandomRange;
+    }
+
+    public void setTabooRandomRange(int tabooRandomRange) {
+        this.tabooRandomRange = tabooRandomRange;
+    }
+
+    public double getTabooConflictFactor() {
+        return tabooConflictFactor;
+    }
+
+    public void setTabooConflictFactor(double tabooConflictFactor) {
+        this.tabooConflictFactor = tabooConflictFactor;
+    }
+
+    public int getCheckInterval() {
+        return checkInterval;
+    }
+
+    public void setCheckInterval(int checkInterval) {
+        this.checkInterval = Math.max(1, checkInterval);
+    }
+
+    public int getPopulationSize() {
+        return populationSize;
+    }
+
+    public void setPopulationSize(int populationSize) {
+        this.populationSize = Math.max(2, populationSize);
+    }
+
+    public long getOffspringIterations() {
+        return offspringIterations;
+    }
+
+    public void setOffspringIterations(long offspringIterations) {
+        this.offspringIterations = offspringIterations;
+    }
+
+    public long getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    public void setCheckpointInterval(long checkpointInterval) {
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    public int getRepairIterations() {
+        return repairIterations;
+    }
+
+    public void setRepairIterations(int repairIterations) {
+        this.repairIterations = repairIterations;
+    }
+
+    public long getRepairTimeLimit() {
+        return repairTimeLimit;
+    }
+
+    public void setRepairTimeLimit(long repairTimeLimit) {
+        this.repairTimeLimit = repairTimeLimit;
+    }
+
+    public boolean isCliqueBoundEnabled() {
+        return cliqueBoundEnabled;
+    }
+
+    public void setCliqueBoundEnabled(boolean cliqueBoundEnabled) {
+        // Off for benchmarks, which want a fixed amount of work instead of stopping once the bound is reached.
+        this.cliqueBoundEnabled = cliqueBoundEnabled;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public long useRandomSeed() {
+        // Picks a random seed, and returns it so the run can still be repeated with setSeed.
+        seed = new Random().nextLong();
+        return seed;
+    }
+
+    public int tabooTenure(Random random, int conflictCount){
+        // The amount of iterations a move stays taboo: random(A) + delta * |conflicting vertices|
+        return random.nextInt(tabooRandomRange + 1) + (int) (tabooConflictFactor * conflictCount);
+    }
+
+    public boolean isTargetReached(int colorCount){
+        return colorCount <= Math.max(1, targetColorCount);
+    }
+
+    public boolean isIterationLimitReached(long iterationCount){
+        return maxIterations > 0 && iterationCount >= maxIterations;
+    }
+
+    public static long deadline(long startTime, long timeLimit){
+        // The System.nanoTime() value at which a limit in milliseconds, counted from startTime, runs out.
+        // Compare with System.nanoTime() - deadline > 0, nanoTime values may overflow.
+        return startTime + (timeLimit > 0 ? timeLimit * 1_000_000L : Long.MAX_VALUE / 2);
+    }
+
+    public static long earliest(long deadline1, long deadline2){
+        return deadline1 - deadline2 < 0 ? deadline1 : deadline2;
+    }
+}
@@ -0,0 +1,50 @@
+interface SolverListener {
+    /*
+     * Receives what the solver is doing, phase by phase. Every method does nothing by default, so a listener
+     * only implements what it needs. The calls come from the thread running the solver and should return
+     * quickly: searchProgress is called every checkInterval tabu iterations. Times are in nanoseconds.
+     */
+    SolverListener NONE = new SolverListener() {};
+
+    /**
+     *  The graph has been loaded.
+     */
+    default void loadFinished(int vertexCount, int edgeCount, long loadTime) {}
+
+    /**
+     *  applyReduction is done, and has reduced removedVertexCount vertices.
+     */
+    default void reductionFinished(int removedVertexCount, long reductionTime) {}
+
+    /**
+     *  The construction heuristic has colored the graph with colorCount colors.
+     */
+    default void constructionFinished(int colorCount, long constructionTime) {}
+
+    /**
+     *  A clique of lowerBound vertices has been found, so at least that many colors are needed.
+     */
+    default void lowerBoundFound(int lowerBound, long time) {}
+
+    /**
+     *  The local search starts from a proper coloring with colorCount colors.
+     */
+    default void searchStarted(int colorCount) {}
+
+    /**
+     *  The local search is looking for a coloring with colorCount colors, and currently has
+     *  infeasibleEdgeCount conflicts. iterationsPerSecond is the average of this search so far.
+     */
+    default void searchProgress(long iterationCount, double iterationsPerSecond, int infeasibleEdgeCount,
+                                int colorCount) {}
+
+    /**
+     *  The local search found a proper coloring with colorCount colors, after searching timeSpent for it.
+     */
+    default void colorCountReached(int colorCount, long timeSpent) {}
+
+    /**
+     *  The local search stopped, the best coloring has colorCount colors.
+     */
+    default void searchFinished(int colorCount, long iterationCount, long searchTime) {}
+}
@@ -0,0 +1,255 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+
+public class SolverMetrics implements SolverListener {
+    /*
+     * A SolverListener that keeps everything it hears: the time of every phase, the vertices removed by the
+     * reduction, the clique lower bound, the initial and best color count, the time spent at every color count,
+     * and the conflict curve of the local search (iterations, iterations per second, infeasible edges and color
+     * count over time).
+     * There are no locks: only the solver thread writes, and the values other threads can poll while the
+     * solver runs are volatile. The curve and the color times are meant to be read (or dumped as CSV/JSON)
+     * once the solver is done.
+     * The curve gets at most one sample every sampleInterval, so long searches don't fill the memory.
+     * Numbers are always written with a decimal point (Locale.ROOT), whatever the locale of the machine.
+     */
+    private long sampleInterval = 10_000_000;  // in nanoseconds
+
+    private volatile int vertexCount = 0;
+    private volatile int edgeCount = 0;
+    private volatile long loadTime = 0;  // all times in nanoseconds
+    private volatile int removedVertexCount = 0;
+    private volatile long reductionTime = 0;
+    private volatile int initialColorCount = 0;
+    private volatile long constructionTime = 0;
+    private volatile int lowerBound = 0;
+    private volatile long lowerBoundTime = 0;
+    private volatile int bestColorCount = 0;
+    private volatile int currentInfeasibleEdgeCount = 0;
+    private volatile long iterationCount = 0;
+    private volatile double iterationsPerSecond = 0;
+    private volatile long searchTime = 0;
+
+    // colorTimes[i] is the time spent finding a coloring with reachedColorCounts[i] colors
+    private int[] reachedColorCounts = new int[16];
+    private long[] colorTimes = new long[16];
+    private int reachedCount = 0;
+
+    // the conflict curve, one sample per index
+    private long searchStartTime = System.nanoTime();
+    private long lastSampleTime = searchStartTime - sampleInterval;
+    private long[] sampleTimes = new long[256];  // since the start of the search
+    private long[] sampleIterations = new long[256];
+    private int[] sampleInfeasibleEdgeCounts = new int[256];
+    private int[] sampleColorCounts = new int[256];
+    private int sampleCount = 0;
+
+    @Override
+    public void loadFinished(int vertexCount, int edgeCount, long loadTime) {
+        this.vertexCount = vertexCount;
+        this.edgeCount = edgeCount;
+        this.loadTime = loadTime;
+    }
+
+    @Override
+    public void reductionFinished(int removedVertexCount, long reductionTime) {
+        this.removedVertexCount += removedVertexCount;
+        this.reductionTime += reductionTime;
+    }
+
+    @Override
+    public void constructionFinished(int colorCount, long constructionTime) {
+        this.initialColorCount = colorCount;
+        this.bestColorCount = colorCount;
+        this.constructionTime = constructionTime;
+    }
+
+    @Override
+    public void lowerBoundFound(int lowerBound, long time) {
+        this.lowerBound = lowerBound;
+        this.lowerBoundTime = time;
+    }
+
+    @Override
+    public void searchStarted(int colorCount) {
+        searchStartTime = System.nanoTime();
+        lastSampleTime = searchStartTime - sampleInterval;
+        bestColorCount = colorCount;
+    }
+
+    @Override
+    public void searchProgress(long iterationCount, double iterationsPerSecond, int infeasibleEdgeCount,
+                               int colorCount) {
+        this.iterationCount = iterationCount;
+        this.iterationsPerSecond = iterationsPerSecond;
+        this.currentInfeasibleEdgeCount = infeasibleEdgeCount;
+
+        long now = System.nanoTime();
+        if (now - lastSampleTime >= sampleInterval){
+            lastSampleTime = now;
+            if (sampleCount == sampleTimes.length){
+                int length = sampleCount * 2;
+                sampleTimes = Arrays.copyOf(sampleTimes, length);
+                sampleIterations = Arrays.copyOf(sampleIterations, length);
+                sampleInfeasibleEdgeCounts = Arrays.copyOf(sampleInfeasibleEdgeCounts, length);
+                sampleColorCounts = Arrays.copyOf(sampleColorCounts, length);
+            }
+            sampleTimes[sampleCount] = now - searchStartTime;
+            sampleIterations[sampleCount] = iterationCount;
+            sampleInfeasibleEdgeCounts[sampleCount] = infeasibleEdgeCount;
+            sampleColorCounts[sampleCount] = colorCount;
+            sampleCount++;
+        }
+    }
+
+    @Override
+    public void colorCountReached(int colorCount, long timeSpent) {
+        if (reachedCount == reachedColorCounts.length){
+            reachedColorCounts = Arrays.copyOf(reachedColorCounts, reachedCount * 2);
+            colorTimes = Arrays.copyOf(colorTimes, reachedCount * 2);
+        }
+        reachedColorCounts[reachedCount] = colorCount;
+        colorTimes[reachedCount] = timeSpent;
+        reachedCount++;
+        bestColorCount = colorCount;
+    }
+
+    @Override
+    public void searchFinished(int colorCount, long iterationCount, long searchTime) {
+        this.bestColorCount = colorCount;
+        this.iterationCount = iterationCount;
+        this.searchTime = searchTime;
+        this.iterationsPerSecond = searchTime == 0 ? 0 : iterationCount / (searchTime / 1e9);
+    }
+
+    public void writeCsv(Path file) throws IOException {
+        // The conflict curve, one line per sample.
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("time_ms,iterations,iterations_per_second,infeasible_edges,color_count");
+            writer.newLine();
+            for (int i = 0; i < sampleCount; i++){
+                double time = sampleTimes[i] / 1e6;
+                double speed = sampleTimes[i] == 0 ? 0 : sampleIterations[i] / (sampleTimes[i] / 1e9);
+                writer.write(String.format(Locale.ROOT, "%.3f,%d,%.1f,%d,%d", time, sampleIterations[i], speed,
+                        sampleInfeasibleEdgeCounts[i], sampleColorCounts[i]));
+                writer.newLine();
+            }
+        }
+    }
+
+    public void writeJson(Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write(toJson());
+            writer.newLine();
+        }
+    }
+
+    public String toJson(){
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"vertices\": ").append(vertexCount).append(",\n");
+        json.append("  \"edges\": ").append(edgeCount).append(",\n");
+        json.append("  \"load_ms\": ").append(milliseconds(loadTime)).append(",\n");
+        json.append("  \"reduced_vertices\": ").append(removedVertexCount).append(",\n");
+        json.append("  \"reduction_ms\": ").append(milliseconds(reductionTime)).append(",\n");
+        json.append("  \"initial_colors\": ").append(initialColorCount).append(",\n");
+        json.append("  \"construction_ms\": ").append(milliseconds(constructionTime)).append(",\n");
+        json.append("  \"lower_bound\": ").append(lowerBound).append(",\n");
+        json.append("  \"lower_bound_ms\": ").append(milliseconds(lowerBoundTime)).append(",\n");
+        json.append("  \"best_colors\": ").append(bestColorCount).append(",\n");
+        json.append("  \"iterations\": ").append(iterationCount).append(",\n");
+        json.append("  \"iterations_per_second\": ")
+                .append(String.format(Locale.ROOT, "%.1f", iterationsPerSecond)).append(",\n");
+        json.append("  \"search_ms\": ").append(milliseconds(searchTime)).append(",\n");
+        json.append("  \"color_times\": [");
+        for (int i = 0; i < reachedCount; i++){
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append("    {\"colors\": ").append(reachedColorCounts[i])
+                    .append(", \"ms\": ").append(milliseconds(colorTimes[i])).append("}");
+        }
+        json.append(reachedCount == 0 ? "],\n" : "\n  ],\n");
+        json.append("  \"conflict_curve\": [");
+        for (int i = 0; i < sampleCount; i++){
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append("    {\"ms\": ").append(milliseconds(sampleTimes[i]))
+                    .append(", \"iterations\": ").append(sampleIterations[i])
+                    .append(", \"infeasible_edges\": ").append(sampleInfeasibleEdgeCounts[i])
+                    .append(", \"colors\": ").append(sampleColorCounts[i]).append("}");
+        }
+        json.append(sampleCount == 0 ? "]\n" : "\n  ]\n");
+        json.append("}");
+        return json.toString();
+    }
+
+    private static String milliseconds(long nanoseconds){
+        return String.format(Locale.ROOT, "%.3f", nanoseconds / 1e6);
+    }
+
+    public long getSampleInterval() {
+        return sampleInterval;
+    }
+
+    public void setSampleInterval(long sampleInterval) {
+        this.sampleInterval = sampleInterval;
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    public long getLoadTime() {
+        return loadTime;
+    }
+
+    public int getRemovedVertexCount() {
+        return removedVertexCount;
+    }
+
+    public long getReductionTime() {
+        return reductionTime;
+    }
+
+    public int getInitialColorCount() {
+        return initialColorCount;
+    }
+
+    public long getConstructionTime() {
+        return constructionTime;
+    }
+
+    public int getLowerBound() {
+        return lowerBound;
+    }
+
+    public long getLowerBoundTime() {
+        return lowerBoundTime;
+    }
+
+    public int getBestColorCount() {
+        return bestColorCount;
+    }
+
+    public int getCurrentInfeasibleEdgeCount() {
+        return currentInfeasibleEdgeCount;
+    }
+
+    public long getIterationCount() {
+        return iterationCount;
+    }
+
+    public double getIterationsPerSecond() {
+        return iterationsPerSecond;
+    }
+
+    public long getSearchTime() {
+        return searchTime;
+    }
+}
@@ -0,0 +1,6 @@
+interface SolverPhase {
+    /**
+     *  Applies this phase (a reduction, a construction heuristic, a local search, ...) to the graph.
+     */
+    void apply(CSRGraph graph);
+}
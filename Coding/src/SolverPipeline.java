@@ -0,0 +1,78 @@
+public class SolverPipeline {
+    /*
+     * The solver as three exchangeable phases: a reduction, a construction heuristic and a local search, each a
+     * SolverPhase. The default pipeline is the one of GraphInterface (subset reduction, DSatur, tabu-1-exchange),
+     * any phase can be replaced, e.g. by one of the other local search engines:
+     *     SolverPipeline pipeline = new SolverPipeline();
+     *     pipeline.setLocalSearch(SolverPipeline.PARTIALCOL);
+     *     pipeline.run(graph);
+     * run times every phase, so engines can be compared on the same instances (see Benchmark).
+     */
+    public static final SolverPhase NONE = graph -> {};
+    public static final SolverPhase SUBSET_REDUCTION = CSRGraph::applyReduction;
+    public static final SolverPhase DSATUR = CSRGraph::applyConstructionHeuristic;
+    public static final SolverPhase TABUCOL = localSearch(TabuSearch::new);
+    public static final SolverPhase PARTIALCOL = localSearch(PartialColSearch::new);
+    public static final SolverPhase KEMPE_CHAIN = localSearch(KempeChainSearch::new);
+
+    private SolverPhase reduction = SUBSET_REDUCTION;
+    private SolverPhase construction = DSATUR;
+    private SolverPhase localSearch = TABUCOL;
+    private long reductionTime = 0;  // in nanoseconds, of the last run
+    private long constructionTime = 0;
+    private long localSearchTime = 0;
+
+    public static SolverPhase localSearch(ColoringSearch.Factory engine){
+        return graph -> graph.applyLocalSearch(engine);
+    }
+
+    public void run(CSRGraph graph){
+        long startTime = System.nanoTime();
+        reduction.apply(graph);
+        long reductionEndTime = System.nanoTime();
+        construction.apply(graph);
+        long constructionEndTime = System.nanoTime();
+        localSearch.apply(graph);
+        long endTime = System.nanoTime();
+
+        reductionTime = reductionEndTime - startTime;
+        constructionTime = constructionEndTime - reductionEndTime;
+        localSearchTime = endTime - constructionEndTime;
+    }
+
+    public SolverPhase getReduction() {
+        return reduction;
+    }
+
+    public void setReduction(SolverPhase reduction) {
+        this.reduction = reduction;
+    }
+
+    public SolverPhase getConstruction() {
+        return construction;
+    }
+
+    public void setConstruction(SolverPhase construction) {
+        this.construction = construction;
+    }
+
+    public SolverPhase getLocalSearch() {
+        return localSearch;
+    }
+
+    public void setLocalSearch(SolverPhase localSearch) {
+        this.localSearch = localSearch;
+    }
+
+    public long getReductionTime() {
+        return reductionTime;
+    }
+
+    public long getConstructionTime() {
+        return constructionTime;
+    }
+
+    public long getLocalSearchTime() {
+        return localSearchTime;
+    }
+}
@@ -0,0 +1,266 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TabuSearch implements ColoringSearch {
+    /*
+     * Tabu-1-exchange on a CSRGraph, with its own coloring state. The graph itself is only read, so several
+     * searches can run on the same graph at the same time, each on its own thread.
+     * The search keeps the conflict table of TabuCol ("gamma"): adjacentColorCount[u * stride + c] is the amount
+     * of neighbours of u with color c, so a move is evaluated in O(1) and applied in O(degree).
+     * The vertices in conflict are kept in an indexed set (conflictVertices, conflictPosition), so every
+     * iteration only looks at the conflicting vertices.
+     */
+    private final int[] targets;
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] validIds;
+    private final int stride;  // the tables are sized for the initial amount of colors
+    private final int[] colors;
+    private final int[] adjacentColorCount;
+    private final int[] tabooTimer;
+    private final int[] conflictVertices;  // the first conflictCount entries are the vertices in conflict
+    private final int[] conflictPosition;  // index in conflictVertices, -1 if the vertex isn't in conflict
+    private final Random random;
+    private final SolverConfig solverConfig;
+
+    private int colorCount;
+    private int infeasibleEdgeCount = 0;
+    private int conflictCount = 0;  // amount of vertices in conflict
+    private int tabooClock = 0;
+    private long iterationCount = 0;
+
+    public TabuSearch(CSRGraph graph, int[] coloring, int colorCount, SolverConfig solverConfig, long seed){
+        /*
+         * coloring must color the valid vertices of the graph with colorCount colors, indexed by vertex id.
+         * It may have conflicts (see improve), but search expects a proper coloring to start from.
+         * It is copied, the search never changes the given array.
+         */
+        int vertexCount = graph.getVertexCount();
+        targets = graph.getTargets();
+        starts = new int[vertexCount];
+        ends = new int[vertexCount];
+        validIds = graph.getValidVertexIds();
+        for (int u : validIds){
+            starts[u] = graph.getNeighborStart(u);
+            ends[u] = graph.getNeighborEnd(u);
+        }
+        stride = colorCount;
+        this.colorCount = colorCount;
+        colors = coloring.clone();
+        adjacentColorCount = new int[vertexCount * stride];
+        tabooTimer = new int[vertexCount * stride];
+        conflictVertices = new int[vertexCount];
+        conflictPosition = new int[vertexCount];
+        Arrays.fill(conflictPosition, -1);
+        random = new Random(seed);
+        this.solverConfig = solverConfig;
+        for (int u : validIds){
+            NeighborColorScanner.DEFAULT.addColorCounts(targets, starts[u], ends[u], colors, adjacentColorCount,
+                    u * stride, stride);
+        }
+        for (int u : validIds){
+            int conflicts = adjacentColorCount[u * stride + colors[u]];
+            if (conflicts > 0){
+                infeasibleEdgeCount += conflicts;
+                addConflict(u);
+            }
+        }
+        infeasibleEdgeCount /= 2;  // every conflicting edge was counted at both ends
+    }
+
+    @Override
+    public boolean search(int targetColorCount, long deadline, AtomicInteger sharedColorCount){
+        /*
+         * Tries to find a proper coloring with targetColorCount colors, starting from the current coloring.
+         * Every vertex with a color that is too large first gets a random smaller one. Then the search keeps
+         * moving a conflicting vertex to its best non-taboo color until no conflicts remain.
+         * Gives up when System.nanoTime() passes deadline, when the iteration limit of the SolverConfig is reached,
+         * or, if sharedColorCount isn't null, as soon as another search has found a coloring with
+         * targetColorCount colors or less. These are checked every checkInterval iterations.
+         * Returns whether a proper coloring was found.
+         */
+        for (int vertex : validIds){
+            if (colors[vertex] >= targetColorCount){
+                int newColor = random.nextInt(targetColorCount);
+                int row = vertex * stride;
+                infeasibleEdgeCount += adjacentColorCount[row + newColor] - adjacentColorCount[row + colors[vertex]];
+                changeColor(vertex, newColor);
+            }
+        }
+        colorCount = targetColorCount;
+
+        while (infeasibleEdgeCount != 0){
+            step();
+            if (iterationCount % solverConfig.getCheckInterval() == 0){
+                if (System.nanoTime() - deadline > 0 || solverConfig.isIterationLimitReached(iterationCount)){
+                    return false;
+                }
+                if (sharedColorCount != null && sharedColorCount.get() <= targetColorCount){
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void step(){
+        int bestVertex = -1;
+        int bestColor = -1;
+        int bestDelta = Integer.MAX_VALUE;
+        int bestTabooVertex = -1;  // used when every move is taboo
+        int bestTabooColor = -1;
+        int bestTabooDelta = Integer.MAX_VALUE;
+        for (int j = 0; j < conflictCount; j++){
+            int vertex = conflictVertices[j];
+            int row = vertex * stride;
+            int currentCount = adjacentColorCount[row + colors[vertex]];
+            for (int color = 0; color < colorCount; color++){
+                if (color == colors[vertex]){
+                    continue;  // There HAS to be a color change.
+                }
+                int delta = adjacentColorCount[row + color] - currentCount;
+                // A taboo move is only allowed if it solves every conflict.
+                if (tabooTimer[row + color] <= tabooClock || infeasibleEdgeCount + delta == 0){
+                    if (delta < bestDelta){
+                        bestDelta = delta;
+                        bestVertex = vertex;
+                        bestColor = color;
+                    }
+                } else if (delta < bestTabooDelta){
+                    bestTabooDelta = delta;
+                    bestTabooVertex = vertex;
+                    bestTabooColor = color;
+                }
+            }
+        }
+        if (bestVertex == -1){
+            bestVertex = bestTabooVertex;
+            bestColor = bestTabooColor;
+            bestDelta = bestTabooDelta;
+        }
+
+        if (bestVertex != -1){
+            int oldColor = colors[bestVertex];
+            infeasibleEdgeCount += bestDelta;
+            changeColor(bestVertex, bestColor);
+            // Moving back to the old color is taboo for a while.
+            tabooTimer[bestVertex * stride + oldColor] = tabooClock + solverConfig.tabooTenure(random, conflictCount);
+        }
+        tabooClock++;
+        iterationCount++;
+    }
+
+    private void changeColor(int u, int color){
+        // Changes the color of u, and updates the conflict table rows of its neighbours and the conflict count.
+        int oldColor = colors[u];
+        for (int i = starts[u]; i < ends[u]; i++){
+            int neighbor = targets[i];
+            int row = neighbor * stride;
+            adjacentColorCount[row + oldColor]--;
+            adjacentColorCount[row + color]++;
+            if (colors[neighbor] == color && adjacentColorCount[row + color] == 1){
+                addConflict(neighbor);  // the neighbour just got its first conflict
+            } else if (colors[neighbor] == oldColor && adjacentColorCount[row + oldColor] == 0){
+                removeConflict(neighbor);  // the neighbour just lost its last conflict
+            }
+        }
+        if (adjacentColorCount[u * stride + color] > 0){
+            addConflict(u);
+        } else {
+            removeConflict(u);
+        }
+        colors[u] = color;
+    }
+
+    private void addConflict(int u){
+        if (conflictPosition[u] == -1){
+            conflictVertices[conflictCount] = u;
+            conflictPosition[u] = conflictCount;
+            conflictCount++;
+        }
+    }
+
+    private void removeConflict(int u){
+        int position = conflictPosition[u];
+        if (position != -1){
+            conflictCount--;
+            int last = conflictVertices[conflictCount];
+            conflictVertices[position] = last;
+            conflictPosition[last] = position;
+            conflictPosition[u] = -1;
+        }
+    }
+
+    public int improve(long iterations, long deadline){
+        /*
+         * Tabu-1-exchange for at most the given amount of iterations with the current colors, without removing
+         * any: used to improve colorings that have conflicts (see HybridEvolutionarySearch).
+         * Stops early when the conflicts are gone or when System.nanoTime() passes deadline.
+         * Returns the amount of conflicting edges left.
+         */
+        for (long i = 0; i < iterations && infeasibleEdgeCount != 0; i++){
+            step();
+            if (iterationCount % solverConfig.getCheckInterval() == 0 && System.nanoTime() - deadline > 0){
+                break;
+            }
+        }
+        return infeasibleEdgeCount;
+    }
+
+    public void loadColoring(int[] coloring, int colorCount){
+        // Continues from another coloring with at most as many colors as this search was created with.
+        for (int vertex : validIds){
+            if (colors[vertex] != coloring[vertex]){
+                int row = vertex * stride;
+                infeasibleEdgeCount += adjacentColorCount[row + coloring[vertex]] - adjacentColorCount[row + colors[vertex]];
+                changeColor(vertex, coloring[vertex]);
+            }
+        }
+        this.colorCount = colorCount;
+    }
+
+    public void reset(int[] coloring, int colorCount, long seed){
+        /*
+         * Starts over from another coloring, as if the search was created again with it and the seed, but
+         * without allocating its tables again (see HybridEvolutionarySearch, which improves many colorings one
+         * after the other). colorCount may not be larger than the one the search was created with.
+         * The conflicting vertices are put back in vertex order, like the constructor does: the order decides
+         * between equally good moves, so it may not depend on what the search did before.
+         */
+        loadColoring(coloring, colorCount);
+        for (int j = 0; j < conflictCount; j++){
+            conflictPosition[conflictVertices[j]] = -1;
+        }
+        conflictCount = 0;
+        for (int u : validIds){
+            if (adjacentColorCount[u * stride + colors[u]] > 0){
+                addConflict(u);
+            }
+        }
+        Arrays.fill(tabooTimer, 0);
+        tabooClock = 0;
+        iterationCount = 0;
+        random.setSeed(seed);
+    }
+
+    @Override
+    public void copyColoringTo(int[] coloring){
+        for (int vertex : validIds){
+            coloring[vertex] = colors[vertex];
+        }
+    }
+
+    public int getColorCount(){
+        return colorCount;
+    }
+
+    public int getInfeasibleEdgeCount(){
+        return infeasibleEdgeCount;
+    }
+
+    @Override
+    public long getIterationCount(){
+        return iterationCount;
+    }
+}
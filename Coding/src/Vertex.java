@@ -2,14 +2,23 @@ import java.util.*;
 
 public class Vertex{
     private final int id;
-    Collection<Vertex> adjacentVertices = new java.util.ArrayList<>(Collections.emptyList());
+    List<Vertex> adjacentVertices;  // an ArrayList, or for dense graphs a view on a row of the matrix (see Graph)
     private Vertex reducedTo = null;
     private int color = -1;
-    private HashMap<Integer,Integer> tabooTimer = new HashMap<>();
+    private int[] tabooTimer = null;  // tabooTimer[c] = the iteration until which moving to color c is taboo
     private int conflictCount = 0;
+    private ConflictSet conflictSet = null;  // the set of conflicting vertices this vertex joins while in conflict
+    private int conflictIndex = -1;  // index of this vertex in that set, -1 if it isn't in it
+    private int[] adjacentColorCount = null;  // adjacentColorCount[c] = amount of neighbours with color c
+    private int validIndex = -1;  // index of this vertex in the validVertices list of its Graph, may be outdated
 
     public Vertex(int id){
+        this(id, 0);
+    }
+
+    public Vertex(int id, int expectedDegree){
         this.id = id;
+        this.adjacentVertices = new java.util.ArrayList<>(expectedDegree);
     }
 
     public int getId(){
@@ -48,29 +57,54 @@ public class Vertex{
         this.adjacentVertices.add(vertex);
     }
 
-    public void setTabooTimer(int time, int A, int delta, int conflictCount, int color){
-        Random r = new Random();
-        int tabooTimer = time + r.nextInt(A+1) + delta * conflictCount;  // This *should* give a random integer
-        this.tabooTimer.put(color, tabooTimer);
+    public void initialiseTabooTimer(int colorCount){
+        tabooTimer = new int[colorCount];
+        Arrays.fill(tabooTimer, -1);
+    }
+
+    public void clearTabooTimer(){
+        tabooTimer = null;
+    }
+
+    public void setTabooTimer(int color, int tabooTimer){
+        // Moving this vertex to the given color is taboo until iteration tabooTimer.
+        this.tabooTimer[color] = tabooTimer;
     }
 
     public int getTabooTimer(int color){
-        if (tabooTimer.get(color) == null){
+        if (tabooTimer == null){
             return -1;
         }
-        return tabooTimer.get(color);
+        return tabooTimer[color];
     }
 
     public void setColor(int color){
         this.color = color;
     }
 
+    public void initialiseAdjacentColorCount(int colorCount){  // O(|E|)
+        // Fills in the row of the conflict table (the "gamma" table of TabuCol) belonging to this vertex.
+        // As long as it exists, changeColor keeps it up to date, and calculateNetInfeasibleEdgeCount is O(1).
+        adjacentColorCount = new int[colorCount];
+        for (Vertex vertex: adjacentVertices){
+            if (vertex.getColor() != -1){
+                adjacentColorCount[vertex.getColor()]++;
+            }
+        }
+        conflictCount = color == -1 ? 0 : adjacentColorCount[color];
+    }
+
+    public void clearAdjacentColorCount(){
+        adjacentColorCount = null;
+    }
+
     public int changeColor(int color){  // O(|E|)
         // specifically designed when changing from a feasible color, to a potentially infeasible color
         // This function is also designed to return the net amount of infeasible edges, if desired.
         int netInfeasibleEdges = 0;
         assert color != this.color;
-        for (Vertex vertex: adjacentVertices){
+        for (int i = 0, size = adjacentVertices.size(); i < size; i++){  // no iterator, this runs every tabu move
+            Vertex vertex = adjacentVertices.get(i);
             if (vertex.getColor() == color){
                 // The new color causes a conflict.
                 increaseConflictCount();
@@ -82,15 +116,29 @@ public class Vertex{
                 vertex.decreaseConflictCount();
                 netInfeasibleEdges--;
             }
+            vertex.updateAdjacentColorCount(this.color, color);
         }
         this.color = color;
         return netInfeasibleEdges;
     }
 
-    public int calculateNetInfeasibleEdgeCount(int color){  // O(|E|)
+    private void updateAdjacentColorCount(int oldColor, int newColor){
+        // A neighbour changed its color from oldColor to newColor.
+        if (adjacentColorCount != null){
+            if (oldColor != -1){
+                adjacentColorCount[oldColor]--;
+            }
+            adjacentColorCount[newColor]++;
+        }
+    }
+
+    public int calculateNetInfeasibleEdgeCount(int color){  // O(1) with the conflict table, O(|E|) without
         // Calculates the amount of net infeasible edges after changing to the specified color
         // specifically designed when changing from a feasible color, to a potentially infeasible color
         // This function is also designed to return the net amount of infeasible edges, if desired.
+        if (adjacentColorCount != null){
+            return adjacentColorCount[color] - adjacentColorCount[this.color];
+        }
         int netInfeasibleEdges = 0;
         for (Vertex vertex: adjacentVertices){
             if (vertex.getColor() == color){
@@ -105,33 +153,73 @@ public class Vertex{
 
     public void increaseConflictCount(){
         conflictCount++;
+        if (conflictCount == 1 && conflictSet != null){
+            conflictSet.add(this);
+        }
     }
 
     public void decreaseConflictCount(){
         assert conflictCount > 0;
         conflictCount--;
+        if (conflictCount == 0 && conflictSet != null){
+            conflictSet.remove(this);
+        }
     }
 
     public boolean isInConflict(){
-        return conflictCount == 0;
+        return conflictCount > 0;
+    }
+
+    public void setConflictSet(ConflictSet conflictSet){
+        // From now on, this vertex is in the given set exactly when it is in conflict.
+        if (this.conflictSet != null){
+            this.conflictSet.remove(this);
+        }
+        this.conflictSet = conflictSet;
+        if (conflictSet != null && isInConflict()){
+            conflictSet.add(this);
+        }
+    }
+
+    int getConflictIndex(){
+        return conflictIndex;
+    }
+
+    void setConflictIndex(int conflictIndex){
+        this.conflictIndex = conflictIndex;
+    }
+
+    int getValidIndex(){
+        return validIndex;
+    }
+
+    void setValidIndex(int validIndex){
+        this.validIndex = validIndex;
     }
 
     public int getColor(){
-        if (reducedTo == null){
-            return color;
-        } else {
-            return reducedTo.getColor();
+        // A reduced vertex has the color of the vertex it was reduced to, which may be reduced itself.
+        // A loop rather than recursion, the chains can get long.
+        Vertex vertex = this;
+        while (vertex.reducedTo != null){
+            vertex = vertex.reducedTo;
         }
+        return vertex.color;
     }
 
     public void reduceTo(Vertex vertex){
         reducedTo = vertex;
         // We only remove the edge *TO* this vertex, allowing us to rebuild the original graph, if so desired.
         for (Vertex adjVertex: adjacentVertices){
-            adjVertex.removeEdge(vertex);
+            adjVertex.removeEdge(this);
         }
     }
 
+    public void restore(){
+        // Undoes reduceTo, except for the edges: the Graph puts this vertex back in the lists of its neighbours.
+        reducedTo = null;
+    }
+
     public Vertex getReducedTo(){
         return reducedTo;
     }
@@ -0,0 +1,136 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryGraphFormatTest {
+    @TempDir
+    Path directory;
+
+    private static CSRGraph path(){
+        // 0 - 1 - 2, and 3 without edges. Row 2 starts at int 6 (header) + 5 (offsets) + 3 = 14 of the file.
+        return new CSRGraph(4, 2, new int[]{0, 1}, new int[]{1, 2});
+    }
+
+    private static void assertSameGraph(CSRGraph expected, CSRGraph actual){
+        assertEquals(expected.getVertexCount(), actual.getVertexCount());
+        assertEquals(expected.getNumberOfEdges(), actual.getNumberOfEdges());
+        for (int u = 0; u < expected.getVertexCount(); u++){
+            assertArrayEquals(row(expected, u), row(actual, u), "row " + u);
+        }
+    }
+
+    private static int[] row(CSRGraph graph, int u){
+        return Arrays.copyOfRange(graph.getTargets(), graph.getNeighborStart(u), graph.getNeighborEnd(u));
+    }
+
+    private static void overwriteInt(Path file, int index, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).putInt(value);
+            channel.write(buffer.flip(), (long) index * Integer.BYTES);
+        }
+    }
+
+    @Test
+    public void roundTripKeepsEdgesReductionAndColoring() throws IOException {
+        CSRGraph graph = GraphGenerator.leightonGraph(450, 15, 8168, 1).toCSRGraph();
+        graph.applyReduction();
+        graph.applyConstructionHeuristic();
+        Path file = directory.resolve("graph.bin");
+        BinaryGraphFormat.write(graph, file, BinaryGraphFormat.REDUCTION | BinaryGraphFormat.COLORING);
+
+        CSRGraph read = BinaryGraphFormat.read(file);
+        assertSameGraph(graph, read);
+        assertEquals(graph.getColorCount(), read.getColorCount());
+        for (int u = 0; u < graph.getVertexCount(); u++){
+            assertEquals(graph.getReducedTo(u), read.getReducedTo(u));
+            assertEquals(graph.getColor(u), read.getColor(u));
+        }
+        assertTrue(read.isProperlyColored());
+        assertEquals(file, read.getSourceFile());
+    }
+
+    @Test
+    public void withoutFlagsOnlyTheEdgesAreKept() throws IOException {
+        CSRGraph graph = GraphGenerator.randomGraph(200, 0.1, 1).toCSRGraph();
+        graph.applyConstructionHeuristic();
+        Path file = directory.resolve("graph.bin");
+        BinaryGraphFormat.write(graph, file, 0);
+
+        CSRGraph read = BinaryGraphFormat.read(file);
+        assertSameGraph(graph, read);
+        assertEquals(0, read.getColorCount());
+        for (int u = 0; u < read.getVertexCount(); u++){
+            assertEquals(-1, read.getReducedTo(u));
+            assertEquals(-1, read.getColor(u));
+        }
+    }
+
+    @Test
+    public void damagedFilesAreRejected() throws IOException {
+        Path file = directory.resolve("path.bin");
+        BinaryGraphFormat.write(path(), file, 0);
+        assertSameGraph(path(), BinaryGraphFormat.read(file));
+
+        // 2 - 3 instead of 2 - 1: still sorted and in range, but 1 lists 2 and 3 doesn't list 2.
+        overwriteInt(file, 14, 3);
+        assertThrows(IOException.class, () -> BinaryGraphFormat.read(file));
+
+        BinaryGraphFormat.write(path(), file, 0);
+        overwriteInt(file, 0, 0);  // the magic number
+        assertThrows(IOException.class, () -> BinaryGraphFormat.read(file));
+
+        BinaryGraphFormat.write(path(), file, 0);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - Integer.BYTES);
+        }
+        assertThrows(IOException.class, () -> BinaryGraphFormat.read(file));
+    }
+
+    @Test
+    public void cacheIsWrittenOnceAndReadAfterwards() throws IOException {
+        Path colFile = directory.resolve("random.col");
+        GraphGenerator.randomGraph(300, 0.05, 2).writeDimacs(colFile);
+        // File times can be coarse, the cache has to be strictly newer than the .col file.
+        Files.setLastModifiedTime(colFile, FileTime.fromMillis(System.currentTimeMillis() - 60000));
+        String location = colFile.toString();
+
+        CSRGraph parsed = BinaryGraphFormat.loadCached(location);
+        assertEquals(colFile, parsed.getSourceFile());
+        assertTrue(BinaryGraphFormat.isCacheFresh(location));
+
+        CSRGraph cached = BinaryGraphFormat.loadCached(location);
+        assertEquals(BinaryGraphFormat.cacheFile(location), cached.getSourceFile());
+        assertEquals(parsed.getDeclaredEdgeCount(), cached.getDeclaredEdgeCount());
+        assertSameGraph(parsed, cached);
+    }
+
+    @Test
+    public void damagedCacheFallsBackToTheColFile() throws IOException {
+        Path colFile = directory.resolve("random.col");
+        GraphGenerator.randomGraph(300, 0.05, 3).writeDimacs(colFile);
+        Files.setLastModifiedTime(colFile, FileTime.fromMillis(System.currentTimeMillis() - 60000));
+        String location = colFile.toString();
+        CSRGraph parsed = BinaryGraphFormat.loadCached(location);
+
+        Path cache = BinaryGraphFormat.cacheFile(location);
+        try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() / 2);
+        }
+        CSRGraph reparsed = BinaryGraphFormat.loadCached(location);
+        assertEquals(colFile, reparsed.getSourceFile());
+        assertSameGraph(parsed, reparsed);
+        // and the cache has been written again
+        assertSameGraph(parsed, BinaryGraphFormat.read(cache));
+    }
+}
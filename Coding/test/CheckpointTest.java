@@ -0,0 +1,125 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CheckpointTest {
+    @TempDir
+    Path directory;
+
+    private static Checkpoint checkpoint(SearchRandom random){
+        // 4 vertices, 3 colors: the taboo timers are a 4 x 3 table.
+        int[] tabooTimer = new int[4 * 3];
+        tabooTimer[2 * 3 + 1] = 17;
+        tabooTimer[3 * 3 + 2] = 25;
+        return new Checkpoint(3, 25, 123456789L, random, new int[]{0, 1, 2, 0}, new int[]{1, 1, 2, 0}, tabooTimer);
+    }
+
+    @Test
+    public void searchRandomMatchesJavaUtilRandom(){
+        java.util.Random expected = new java.util.Random(99);
+        SearchRandom random = new SearchRandom(99);
+        for (int i = 0; i < 1000; i++){
+            assertEquals(expected.nextInt(100), random.nextInt(100));
+        }
+        assertEquals(expected.nextLong(), random.nextLong());
+        assertEquals(expected.nextDouble(), random.nextDouble());
+    }
+
+    @Test
+    public void roundTripKeepsTheSearchState() throws IOException {
+        SearchRandom random = new SearchRandom(7);
+        random.nextInt(10);
+        Path file = directory.resolve("search.checkpoint");
+        checkpoint(random).write(file);
+
+        Checkpoint read = Checkpoint.read(file);
+        assertEquals(4, read.getVertexCount());
+        assertEquals(3, read.getColorCount());
+        assertEquals(25, read.getTabooClock());
+        assertEquals(123456789L, read.getIterationCount());
+        int[] best = {0, 1, 2, 0};
+        int[] current = {1, 1, 2, 0};
+        for (int u = 0; u < 4; u++){
+            assertEquals(best[u], read.getBestColor(u));
+            assertEquals(current[u], read.getCurrentColor(u));
+        }
+        assertEquals(17, read.getTabooTimer(2, 1));
+        assertEquals(25, read.getTabooTimer(3, 2));
+        assertEquals(0, read.getTabooTimer(0, 0));
+
+        // The resumed Random goes on where the saved one was.
+        SearchRandom resumed = read.getRandom();
+        for (int i = 0; i < 100; i++){
+            assertEquals(random.nextInt(1000), resumed.nextInt(1000));
+        }
+    }
+
+    @Test
+    public void damagedFilesAreRejected() throws IOException {
+        Path file = directory.resolve("search.checkpoint");
+        checkpoint(new SearchRandom(7)).write(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+        assertThrows(IOException.class, () -> Checkpoint.read(file));
+
+        checkpoint(new SearchRandom(7)).write(file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[0] ^= 1;  // the magic number
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> Checkpoint.read(file));
+
+        Files.write(file, new byte[3]);
+        assertThrows(IOException.class, () -> Checkpoint.read(file));
+    }
+
+    @Test
+    public void writerReplacesTheCheckpoint() throws IOException {
+        Path file = directory.resolve("search.checkpoint");
+        try (CheckpointWriter writer = new CheckpointWriter(file)) {
+            writer.write(checkpoint(new SearchRandom(1)));
+            writer.write(checkpoint(new SearchRandom(2)));
+        }
+        assertEquals(123456789L, Checkpoint.read(file).getIterationCount());
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count(), "no temporary files are left behind");
+        }
+    }
+
+    @Test
+    public void graphSearchResumesFromItsCheckpoint() throws IOException {
+        Path colFile = directory.resolve("leighton.col");
+        GraphGenerator.leightonGraph(450, 15, 8168, 4).writeDimacs(colFile);
+        Path file = directory.resolve("leighton.checkpoint");
+        SolverConfig solverConfig = new SolverConfig();
+        solverConfig.setMaxIterations(50000);
+        solverConfig.setCliqueBoundEnabled(false);
+
+        Graph graph = new Graph(colFile.toString());
+        graph.setSolverConfig(solverConfig);
+        graph.setCheckpointFile(file);
+        graph.applyReduction();
+        graph.applyConstructionHeuristic();
+        graph.applyStochasticLocalSearchAlgorithm();
+        Checkpoint checkpoint = Checkpoint.read(file);
+        assertEquals(graph.getIterationCount(), checkpoint.getIterationCount());
+
+        // The same graph, reduced the same way, goes on from the checkpoint.
+        SolverConfig longerConfig = new SolverConfig(solverConfig);
+        longerConfig.setMaxIterations(100000);
+        Graph resumed = new Graph(colFile.toString());
+        resumed.setSolverConfig(longerConfig);
+        resumed.applyReduction();
+        resumed.resumeStochasticLocalSearchAlgorithm(file.toString());
+        assertTrue(resumed.getIterationCount() > checkpoint.getIterationCount());
+        assertTrue(resumed.getColorCount() <= graph.getColorCount());
+        assertTrue(resumed.isProperlyColored());
+    }
+}
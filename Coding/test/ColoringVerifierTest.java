@@ -0,0 +1,75 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColoringVerifierTest {
+    private static CSRGraph triangle(){
+        // 0 - 1 - 2 - 0, and 3 without edges
+        return new CSRGraph(4, 3, new int[]{0, 1, 2}, new int[]{1, 2, 0});
+    }
+
+    @Test
+    public void properColoringIsAccepted(){
+        CSRGraph graph = GraphGenerator.randomGraph(1000, 0.05, 6).toCSRGraph();
+        graph.applyConstructionHeuristic();
+        ColoringVerifier.Result result = ColoringVerifier.verify(graph, graph.getExpandedColoring(), 4);
+        assertTrue(result.isProper(), result.toString());
+        assertEquals(1000, result.getVertexCount());
+        assertEquals(graph.getNumberOfEdges(), result.getEdgeCount());
+        assertEquals(graph.getColorCount(), result.getColorCount());
+        assertEquals(-1, result.getConflictU());
+    }
+
+    @Test
+    public void conflictsAreCounted(){
+        ColoringVerifier.Result result = ColoringVerifier.verify(triangle(), new int[]{0, 0, 1, -1}, 1);
+        assertFalse(result.isProper());
+        assertEquals(3, result.getEdgeCount());
+        assertEquals(1, result.getConflictCount());
+        assertEquals(0, result.getConflictU());
+        assertEquals(1, result.getConflictV());
+
+        assertEquals(3, ColoringVerifier.verify(triangle(), new int[]{0, 0, 0, 0}, 1).getConflictCount());
+        // an uncolored end is a conflict too, an uncolored vertex without edges isn't
+        assertEquals(2, ColoringVerifier.verify(triangle(), new int[]{0, 1, -1, -1}, 1).getConflictCount());
+        assertTrue(ColoringVerifier.verify(triangle(), new int[]{0, 1, 2, -1}, 1).isProper());
+    }
+
+    @Test
+    public void parallelVerificationMatchesSequential(){
+        CSRGraph graph = GraphGenerator.randomGraph(2000, 0.02, 7).toCSRGraph();
+        int[] coloring = new int[graph.getVertexCount()];
+        Random random = new Random(8);
+        for (int u = 0; u < coloring.length; u++){
+            coloring[u] = random.nextInt(20);
+        }
+        ColoringVerifier.Result sequential = ColoringVerifier.verify(graph, coloring, 1);
+        for (int threadCount : new int[]{2, 3, 8}){
+            ColoringVerifier.Result parallel = ColoringVerifier.verify(graph, coloring, threadCount);
+            assertEquals(sequential.getEdgeCount(), parallel.getEdgeCount());
+            assertEquals(sequential.getConflictCount(), parallel.getConflictCount());
+            assertEquals(sequential.getConflictU(), parallel.getConflictU());
+            assertEquals(sequential.getConflictV(), parallel.getConflictV());
+            assertEquals(sequential.getColorCount(), parallel.getColorCount());
+        }
+        assertEquals(graph.getNumberOfEdges(), sequential.getEdgeCount());
+        assertTrue(sequential.getConflictCount() > 0);
+    }
+
+    @Test
+    public void removedVerticesAreSkipped(){
+        CSRGraph graph = triangle();
+        graph.removeNode(2);
+        CSRGraph current = graph.getCurrentGraph();
+        ColoringVerifier.Result result = ColoringVerifier.verify(current, new int[]{0, 1, -1, -1}, 2);
+        assertTrue(result.isProper(), result.toString());
+        assertEquals(1, result.getEdgeCount());
+    }
+
+    @Test
+    public void coloringOfAnotherGraphIsRefused(){
+        assertThrows(IllegalArgumentException.class, () -> ColoringVerifier.verify(triangle(), new int[3], 1));
+    }
+}
@@ -0,0 +1,133 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphUpdateTest {
+    @TempDir
+    Path directory;
+
+    private Graph graph;
+    private SolverConfig solverConfig;
+
+    @BeforeEach
+    public void colorGraph() throws IOException {
+        // A reduced and searched graph, so the updates also have to put the reduced vertices back.
+        Path colFile = directory.resolve("random.col");
+        GraphGenerator.randomGraph(150, 0.3, 5).writeDimacs(colFile);
+        graph = new Graph(colFile.toString());
+        solverConfig = new SolverConfig();
+        solverConfig.setMaxIterations(100000);
+        graph.setSolverConfig(solverConfig);
+        graph.applyReduction();
+        graph.applyConstructionHeuristic();
+        graph.applyStochasticLocalSearchAlgorithm();
+    }
+
+    private void assertProperAfterUpdates(){
+        // The whole current graph, reduced vertices included, checked from scratch.
+        CSRGraph current = graph.getCurrentGraph();
+        ColoringVerifier.Result result = ColoringVerifier.verify(current, graph.getExpandedColoring(), 2);
+        assertTrue(result.isProper(), result.toString());
+        assertEquals(graph.getNumberOfEdges(), result.getEdgeCount());
+        assertTrue(result.getColorCount() <= graph.getColorCount());
+        assertTrue(graph.isProperlyColored());
+    }
+
+    @Test
+    public void addedEdgesAreRepaired(){
+        Random random = new Random(1);
+        int edgeCount = graph.getNumberOfEdges();
+        int added = 0;
+        for (int i = 0; i < 500; i++){
+            int u = random.nextInt(150);
+            int v = random.nextInt(150);
+            if (u != v && !graph.areNeighbors(u, v)){
+                graph.addEdge(u, v);
+                assertTrue(graph.areNeighbors(u, v) && graph.areNeighbors(v, u));
+                assertNotEquals(graph.getColor(u), graph.getColor(v));
+                added++;
+            }
+        }
+        assertEquals(edgeCount + added, graph.getNumberOfEdges());
+        assertProperAfterUpdates();
+    }
+
+    @Test
+    public void removedEdgesAndNodesAreGone(){
+        Random random = new Random(2);
+        int edgeCount = graph.getNumberOfEdges();
+        int removed = 0;
+        for (int i = 0; i < 300; i++){
+            int u = random.nextInt(150);
+            int v = random.nextInt(150);
+            if (graph.areNeighbors(u, v)){
+                graph.removeEdge(u, v);
+                assertFalse(graph.areNeighbors(u, v) || graph.areNeighbors(v, u));
+                removed++;
+            }
+        }
+        assertEquals(edgeCount - removed, graph.getNumberOfEdges());
+
+        int nodeCount = graph.getNumberOfNodes();
+        for (int u = 0; u < 150; u += 15){
+            edgeCount = graph.getNumberOfEdges();
+            int degree = graph.getDegree(u);
+            graph.removeNode(u);
+            assertEquals(edgeCount - degree, graph.getNumberOfEdges());
+        }
+        assertEquals(nodeCount - 10, graph.getNumberOfNodes());
+        assertProperAfterUpdates();
+    }
+
+    @Test
+    public void addedNodesCanBeConnected(){
+        int first = graph.addNode();
+        int second = graph.addNode();
+        assertEquals(150, first);
+        assertEquals(151, second);
+        for (int v = 0; v < 150; v += 3){
+            graph.addEdge(first, v);
+            graph.addEdge(second, v + 1);
+        }
+        graph.addEdge(first, second);
+        assertEquals(51, graph.getDegree(first));
+        assertProperAfterUpdates();
+    }
+
+    @Test
+    public void repairThatNeedsTheWholeGraphStaysQuiet(){
+        // Without the local tabu search, every edge between two colors that have no free color left goes to
+        // the tabu search on the whole graph. That is part of the update: the listener hears nothing.
+        int[] events = new int[2];
+        graph.setListener(new SolverListener() {
+            @Override
+            public void lowerBoundFound(int lowerBound, long time) {
+                events[0]++;
+            }
+
+            @Override
+            public void searchStarted(int colorCount) {
+                events[1]++;
+            }
+        });
+        solverConfig.setRepairIterations(0);
+        int bound = graph.getLowerBound();
+        Random random = new Random(3);
+        for (int i = 0; i < 300; i++){
+            int u = random.nextInt(150);
+            int v = random.nextInt(150);
+            if (u != v){
+                graph.addEdge(u, v);
+            }
+        }
+        assertArrayEquals(new int[]{0, 0}, events);
+        assertEquals(bound, graph.getLowerBound(), "added edges keep the clique bound");
+        assertProperAfterUpdates();
+    }
+}
@@ -0,0 +1,52 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+class VectorNeighborColorScanner implements NeighborColorScanner {
+    /*
+     * The Vector API version of the scans (jdk.incubator.vector, JDK 16 and later): the colors of a block of
+     * neighbours are gathered into one vector (colors indexed by targets), and compared with a color all at
+     * once, the matching lanes are counted with a popcount of the mask.
+     * Counting all colors is left to the scalar loop: the gather costs as much as the scalar loads, and
+     * comparing every block with every color on top of that never won in the benchmark, not even with 4 colors.
+     * This class is in its own source root, compiled with javac --add-modules jdk.incubator.vector (see pom.xml),
+     * and running it needs java --add-modules jdk.incubator.vector. It is only ever loaded by
+     * NeighborColorScanner.select.
+     */
+    // 256 bits (8 ints) and not SPECIES_PREFERRED: on JDK 17 the 512 bit gathers of AVX-512 machines sometimes
+    // crashed the JIT compiled code, the 256 bit ones never did, and are still clearly faster than the scalar loop.
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_256;
+
+    public VectorNeighborColorScanner(){
+        // Without hardware support, the Vector API falls back to plain Java, which is slower than the scalar loop.
+        if (IntVector.SPECIES_PREFERRED.vectorBitSize() < SPECIES.vectorBitSize()){
+            throw new IllegalStateException("No " + SPECIES.vectorBitSize() + " bit vectors on this machine");
+        }
+    }
+
+    @Override
+    public int countColor(int[] targets, int from, int to, int[] colors, int color) {
+        int count = 0;
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()){
+            IntVector neighborColors = IntVector.fromArray(SPECIES, colors, 0, targets, i);
+            count += neighborColors.compare(VectorOperators.EQ, color).trueCount();
+        }
+        for (; i < to; i++){  // the last few neighbours that don't fill a vector
+            if (colors[targets[i]] == color){
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void addColorCounts(int[] targets, int from, int to, int[] colors, int[] counts, int offset, int colorCount) {
+        NeighborColorScanner.SCALAR.addColorCounts(targets, from, to, colors, counts, offset, colorCount);
+    }
+
+    @Override
+    public String getName() {
+        return "vector";
+    }
+}